@@ -1,4 +1,4 @@
-package com.tixon.squarededittext;
+package com.tixon.squarededittext.sample;
 
 import android.app.Application;
 import android.test.ApplicationTestCase;
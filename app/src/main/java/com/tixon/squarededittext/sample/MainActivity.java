@@ -1,10 +1,12 @@
-package com.tixon.squarededittext;
+package com.tixon.squarededittext.sample;
 
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
 import android.view.MotionEvent;
 import android.view.View;
 
+import com.tixon.squarededittext.LoginEditText;
+
 public class MainActivity extends AppCompatActivity {
 
     @Override
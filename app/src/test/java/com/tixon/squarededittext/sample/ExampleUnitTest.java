@@ -1,4 +1,4 @@
-package com.tixon.squarededittext;
+package com.tixon.squarededittext.sample;
 
 import org.junit.Test;
 
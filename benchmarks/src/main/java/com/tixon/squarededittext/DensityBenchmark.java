@@ -0,0 +1,48 @@
+package com.tixon.squarededittext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions of stroke dimensions one by one and in one batch
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DensityBenchmark {
+    private static final float XDPI = 480.0f;
+
+    private final float[] dp = {2.0f, 1.0f, 3.0f};
+    private final float[] px = new float[3];
+
+    @Benchmark
+    public void dpToPxOneByOne(Blackhole blackhole) {
+        blackhole.consume(DensityUtils.dpToPx(dp[0], XDPI));
+        blackhole.consume(DensityUtils.dpToPx(dp[1], XDPI));
+        blackhole.consume(DensityUtils.dpToPx(dp[2], XDPI));
+    }
+
+    @Benchmark
+    public float[] dpToPxBatch() {
+        DensityUtils.dpToPx(dp, px, XDPI);
+        return px;
+    }
+
+    @Benchmark
+    public int pxToDp() {
+        return DensityUtils.pxToDp(693, XDPI);
+    }
+}
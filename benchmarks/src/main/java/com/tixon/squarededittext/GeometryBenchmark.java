@@ -0,0 +1,71 @@
+package com.tixon.squarededittext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rebuilding cell geometry and of placing symbols into cells
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometryBenchmark {
+    //width of 231dp at xxhdpi
+    private static final int WIDTH = 693;
+    private static final float STROKE_WIDTH = 3.0f;
+    private static final float STROKE_MARGIN = 6.0f;
+
+    @Param({"4", "8", "16", "32", "64"})
+    int cells;
+
+    private CellGeometry geometry;
+    private GlyphAdvanceCache advances;
+    private CellBuffer text;
+
+    @Setup
+    public void setUp() {
+        geometry = new CellGeometry();
+        geometry.update(WIDTH, cells, STROKE_WIDTH, STROKE_MARGIN);
+        advances = new GlyphAdvanceCache();
+        advances.setStyle(geometry.textSize, null);
+        for(char c = '0'; c <= '9'; c++) {
+            advances.put(c, geometry.textSize * 0.55f);
+        }
+        text = new CellBuffer(cells);
+        for(int i = 0; i < cells; i++) {
+            text.append((char) ('0' + i % 10));
+        }
+    }
+
+    @Benchmark
+    public CellGeometry update() {
+        geometry.update(WIDTH, cells, STROKE_WIDTH, STROKE_MARGIN);
+        return geometry;
+    }
+
+    /**
+     * Positions of all symbols as onDraw computes them
+     */
+    @Benchmark
+    public void placeSymbols(Blackhole blackhole) {
+        char[] symbols = text.array();
+        for(int i = 0; i < text.length(); i++) {
+            blackhole.consume(geometry.textCenterX[i] - advances.get(symbols[i]) / 2.0f);
+        }
+    }
+}
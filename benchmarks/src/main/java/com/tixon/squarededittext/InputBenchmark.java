@@ -0,0 +1,69 @@
+package com.tixon.squarededittext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keystrokes per second going through input logic of cells
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InputBenchmark {
+    private static final int CELLS = 8;
+    //type all, delete all with selecting, type all, activate, replace last
+    private static final int KEYSTROKES = CELLS + (CELLS + 1) + CELLS + 2;
+
+    private CellInputStateMachine input;
+
+    @Setup
+    public void setUp() {
+        input = new CellInputStateMachine(CELLS);
+    }
+
+    /**
+     * Typical session of entering a code with corrections
+     */
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public void session(Blackhole blackhole) {
+        for(int i = 0; i < CELLS; i++) {
+            blackhole.consume(input.type((char) ('0' + i)));
+        }
+        for(int i = 0; i <= CELLS; i++) {
+            input.delete();
+        }
+        for(int i = 0; i < CELLS; i++) {
+            blackhole.consume(input.type((char) ('9' - i)));
+        }
+        blackhole.consume(input.activate());
+        blackhole.consume(input.type('0'));
+        input.clear();
+    }
+
+    /**
+     * Single transition of typing a symbol and selecting it again by deleting
+     */
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public int typeAndSelect() {
+        input.type('1');
+        input.delete();
+        return input.cursorCell();
+    }
+}
@@ -0,0 +1,118 @@
+package com.tixon.squarededittext;
+
+/**
+ * Fixed-capacity buffer of symbols shown in cells. It is mutated in place, so typing,
+ * deleting and drawing symbols don't allocate any objects. Capacity is number of cells.
+ */
+public class CellBuffer implements CharSequence {
+    private final char[] chars;
+    private int length;
+
+    public CellBuffer(int capacity) {
+        this.chars = new char[capacity];
+    }
+
+    /**
+     * Create buffer of another capacity with the same symbols.
+     * Symbols which don't fit into new capacity are dropped
+     * @param capacity capacity of new buffer
+     * @return new buffer
+     */
+    public CellBuffer resized(int capacity) {
+        CellBuffer buffer = new CellBuffer(capacity);
+        buffer.set(this);
+        return buffer;
+    }
+
+    public int capacity() {
+        return chars.length;
+    }
+
+    /**
+     * Backing array of symbols, valid from 0 to length()
+     * @return array which must not be modified
+     */
+    public char[] array() {
+        return chars;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public boolean isFull() {
+        return length == chars.length;
+    }
+
+    /**
+     * Replace content of buffer with symbols of s
+     */
+    public void set(CharSequence s) {
+        set(s, 0, s.length());
+    }
+
+    /**
+     * Replace content of buffer with symbols of s from start to end
+     */
+    public void set(CharSequence s, int start, int end) {
+        int count = Math.min(end - start, chars.length);
+        for(int i = 0; i < count; i++) {
+            chars[i] = s.charAt(start + i);
+        }
+        length = count;
+    }
+
+    /**
+     * Add symbol to the end of buffer, does nothing if buffer is full
+     */
+    public void append(char c) {
+        if(length < chars.length) {
+            chars[length++] = c;
+        }
+    }
+
+    /**
+     * Replace the last symbol, does nothing if buffer is empty
+     */
+    public void replaceLast(char c) {
+        if(length > 0) {
+            chars[length - 1] = c;
+        }
+    }
+
+    /**
+     * Remove the last symbol, does nothing if buffer is empty
+     */
+    public void removeLast() {
+        if(length > 0) {
+            length--;
+        }
+    }
+
+    public void clear() {
+        length = 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if(index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,301 @@
+package com.tixon.squarededittext;
+
+/**
+ * Precomputed positions of cells, symbols and cursor of
+ * @see LoginEditText
+ *
+ * Geometry is rebuilt only when width, number of cells or their groups change, so drawing a frame
+ * just reads coordinates from arrays and does no arithmetic.
+ */
+public class CellGeometry {
+
+    //Size in dp from design
+    private static final int TEXT_SIZE = 14;
+    private static final int TEXT_HEIGHT = 19;
+    public static final int SQUARE_WIDTH = 26;
+
+    //percentage: interval between squares 13%, square 87% (of square with interval,
+    // which is EditText.width() / number of squares)
+    public static final float INTERVAL_PERCENTAGE = 0.13f;
+    //text size and baseline relative to square
+    public static final float TEXT_SIZE_RATIO = (float) TEXT_SIZE / (float) SQUARE_WIDTH;
+    private static final float TEXT_HEIGHT_RATIO = (float) TEXT_HEIGHT / (float) SQUARE_WIDTH;
+
+    static final int OUTLINE_FLOATS = 16;
+    static final int DASH_FLOATS = 4;
+
+    //when true, edges of squares and cursor are whole pixels
+    private boolean pixelSnapping = false;
+    //when true, cursor collapses into its bottom line
+    private boolean cursorUnderline = false;
+    private float intervalPercentage = INTERVAL_PERCENTAGE;
+    private float textSizeRatio = TEXT_SIZE_RATIO;
+
+    int cellsNumber;
+    float squareWidth;
+    float textSize;
+
+    //cell squares
+    float[] left = new float[0];
+    float[] top = new float[0];
+    float[] right = new float[0];
+    float[] bottom = new float[0];
+
+    //all squares packed as lines for a single Canvas.drawLines call,
+    // 4 lines of 4 coordinates per square, followed by a line per dash between groups
+    float[] outlines = new float[0];
+    int outlinesLength;
+
+    //dashes between groups
+    int dashesNumber;
+
+    //symbols are centered horizontally in cells
+    float[] textCenterX = new float[0];
+    float[] textBaseline = new float[0];
+
+    //cursor
+    float[] cursorLeft = new float[0];
+    float[] cursorRight = new float[0];
+    float cursorTop;
+    float cursorBottom;
+
+    /**
+     * Snap edges of squares and cursor to whole pixels on the next update.
+     * Leftover pixels are spread over intervals in proportion to their size,
+     * so every square has the same integer width and the layout doesn't shake between sizes
+     */
+    public void setPixelSnapping(boolean snapping) {
+        this.pixelSnapping = snapping;
+    }
+
+    public boolean isPixelSnapping() {
+        return pixelSnapping;
+    }
+
+    /**
+     * Draw cursor as underline instead of box on the next update
+     */
+    public void setCursorUnderline(boolean underline) {
+        this.cursorUnderline = underline;
+    }
+
+    /**
+     * Change proportions of cells for the next update
+     * @param intervalPercentage part of square with interval taken by interval, from 0 to 1
+     * @param textSizeRatio text size relative to square width
+     */
+    public void setProportions(float intervalPercentage, float textSizeRatio) {
+        this.intervalPercentage = Math.max(0.0f, Math.min(intervalPercentage, 0.9f));
+        this.textSizeRatio = textSizeRatio;
+    }
+
+    /**
+     * Get width in which squares are laid out with given width, the inverse of
+     * @see #update(int, int, float, float, int[], float, boolean)
+     * @param squareWidth width of square in pixels
+     * @param cellsNumber number of cells
+     * @param groups sizes of groups or null, ignored if they don't sum to cellsNumber
+     * @param groupGap additional gap between groups in pixels
+     * @return width in pixels
+     */
+    public float widthFor(float squareWidth, int cellsNumber, int[] groups, float groupGap) {
+        if(groups != null && CellGroups.cellsNumber(groups) != cellsNumber) {
+            groups = null;
+        }
+        int gapsNumber = groups == null ? 0 : groups.length - 1;
+        return cellsNumber * squareWidth / (1.0f - intervalPercentage) + gapsNumber * groupGap;
+    }
+
+    /**
+     * Calculate sizes for background, symbols and cursor
+     * @param width width of view in pixels
+     * @param cellsNumber number of cells
+     * @param strokeWidth width of square stroke in pixels
+     * @param strokeMargin margin of cursor inside of square in pixels
+     */
+    public void update(int width, int cellsNumber, float strokeWidth, float strokeMargin) {
+        update(width, cellsNumber, strokeWidth, strokeMargin, null, 0.0f, false);
+    }
+
+    /**
+     * Calculate sizes for background, symbols and cursor of cells split into groups.
+     * Cells of each group are laid out as without groups, groups are moved apart by gap
+     * @param width width of view in pixels
+     * @param cellsNumber number of cells
+     * @param strokeWidth width of square stroke in pixels
+     * @param strokeMargin margin of cursor inside of square in pixels
+     * @param groups sizes of groups or null, ignored if they don't sum to cellsNumber
+     * @param groupGap additional gap between groups in pixels
+     * @param dashes true to draw a dash in the middle of each gap
+     */
+    public void update(int width, int cellsNumber, float strokeWidth, float strokeMargin,
+                       int[] groups, float groupGap, boolean dashes) {
+        if(groups != null && CellGroups.cellsNumber(groups) != cellsNumber) {
+            groups = null;
+        }
+        int gapsNumber = groups == null ? 0 : groups.length - 1;
+        if(gapsNumber == 0) {
+            groupGap = 0.0f;
+        }
+        dashesNumber = dashes ? gapsNumber : 0;
+        ensureCapacity(cellsNumber, dashesNumber);
+        this.cellsNumber = cellsNumber;
+        outlinesLength = cellsNumber * OUTLINE_FLOATS + dashesNumber * DASH_FLOATS;
+        if(cellsNumber == 0) {
+            //nothing to lay out or snap
+            return;
+        }
+
+        float squareWithInterval = (width - gapsNumber * groupGap) / (float) cellsNumber;
+        int intervalQuantity = Math.max(cellsNumber - 1, 1);
+        float squareIntervalPart = (squareWithInterval * intervalPercentage) / intervalQuantity / 2.0f;
+        // \/2.0f here because without it last square is of out of borders
+        float squareInterval = squareWithInterval * intervalPercentage + squareIntervalPart;
+        float step = squareWithInterval + squareIntervalPart;
+
+        squareWidth = squareWithInterval * (1.0f - intervalPercentage);
+        textSize = squareWidth * textSizeRatio;
+        //baseline keeps symbols of the default size where the design has them
+        float textHeight = squareWidth * (TEXT_HEIGHT_RATIO + (textSizeRatio - TEXT_SIZE_RATIO) / 2.0f);
+
+        cursorTop = strokeMargin;
+        cursorBottom = squareWidth;
+
+        float xFrom = strokeWidth;
+        //shift of current group and index of its last cell
+        float shift = 0.0f;
+        int group = 0;
+        int groupEnd = groups == null ? cellsNumber - 1 : groups[0] - 1;
+        for(int i = 0; i < cellsNumber; i++) {
+            left[i] = xFrom + shift;
+            right[i] = left[i] + squareWidth;
+            top[i] = strokeWidth;
+            bottom[i] = strokeWidth + squareWidth;
+            xFrom += squareWidth + squareInterval;
+            packOutline(i);
+
+            textCenterX[i] = (left[i] + right[i]) / 2.0f;
+            textBaseline[i] = textHeight;
+
+            cursorLeft[i] = i * step + strokeMargin + shift;
+            cursorRight[i] = cursorLeft[i] + squareWidth - strokeMargin;
+
+            if(i == groupEnd && i < cellsNumber - 1) {
+                group++;
+                groupEnd += groups[group];
+                shift += groupGap;
+                if(dashes) {
+                    packDash(group - 1, right[i], xFrom + shift, (top[i] + bottom[i]) / 2.0f);
+                }
+            }
+        }
+        if(pixelSnapping) {
+            snapToPixels(groups);
+        }
+        if(cursorUnderline) {
+            cursorTop = cursorBottom;
+        }
+    }
+
+    /**
+     * Move edges to whole pixels keeping squares inside of the float layout
+     */
+    private void snapToPixels(int[] groups) {
+        int n = cellsNumber;
+        float floatLeft = left[0];
+        float floatSquare = squareWidth;
+        int from = (int) Math.ceil(floatLeft);
+        int to = (int) Math.floor(right[n - 1]);
+        int square = (int) floatSquare;
+        int free = to - from - n * square;
+        while(free < 0 && square > 1) {
+            square--;
+            free += n;
+        }
+        free = Math.max(free, 0);
+        //intervals of float layout are weights of leftover pixels
+        float totalWeight = (right[n - 1] - floatLeft) - n * floatSquare;
+
+        int snappedTop = Math.round(top[0]);
+        int x = from;
+        int previousShare = 0;
+        for(int i = 0; i < n; i++) {
+            if(i > 0) {
+                int share;
+                if(totalWeight > 0.0f) {
+                    float weight = left[i] - floatLeft - i * floatSquare;
+                    share = Math.round(free * weight / totalWeight);
+                } else {
+                    share = Math.round((float) free * i / (n - 1));
+                }
+                x += square + share - previousShare;
+                previousShare = share;
+            }
+            float cursorOffset = cursorLeft[i] - left[i];
+            float cursorWidth = cursorRight[i] - cursorLeft[i];
+
+            left[i] = x;
+            right[i] = x + square;
+            top[i] = snappedTop;
+            bottom[i] = snappedTop + square;
+            packOutline(i);
+            textCenterX[i] = (left[i] + right[i]) / 2.0f;
+            textBaseline[i] = Math.round(textBaseline[i]);
+
+            cursorLeft[i] = left[i] + Math.max(Math.round(cursorOffset), 0);
+            cursorRight[i] = Math.min(cursorLeft[i] + Math.round(cursorWidth), right[i]);
+        }
+        squareWidth = square;
+        cursorTop = Math.round(cursorTop);
+        cursorBottom = Math.min(Math.round(cursorBottom), bottom[0]);
+
+        if(dashesNumber > 0) {
+            float y = Math.round((top[0] + bottom[0]) / 2.0f);
+            int end = -1;
+            for(int dash = 0; dash < dashesNumber; dash++) {
+                end += groups[dash];
+                packDash(dash, right[end], left[end + 1], y);
+                int o = n * OUTLINE_FLOATS + dash * DASH_FLOATS;
+                outlines[o] = Math.round(outlines[o]);
+                outlines[o + 2] = Math.round(outlines[o + 2]);
+            }
+        }
+    }
+
+    /**
+     * Pack horizontal dash taking the middle half of space between squares
+     */
+    private void packDash(int dash, float from, float to, float y) {
+        float quarter = (to - from) / 4.0f;
+        int o = cellsNumber * OUTLINE_FLOATS + dash * DASH_FLOATS;
+        outlines[o] = from + quarter; outlines[o + 1] = y; outlines[o + 2] = to - quarter; outlines[o + 3] = y;
+    }
+
+    private void packOutline(int i) {
+        float l = left[i], t = top[i], r = right[i], b = bottom[i];
+        int o = i * OUTLINE_FLOATS;
+        //top
+        outlines[o] = l; outlines[o + 1] = t; outlines[o + 2] = r; outlines[o + 3] = t;
+        //right
+        outlines[o + 4] = r; outlines[o + 5] = t; outlines[o + 6] = r; outlines[o + 7] = b;
+        //bottom
+        outlines[o + 8] = r; outlines[o + 9] = b; outlines[o + 10] = l; outlines[o + 11] = b;
+        //left
+        outlines[o + 12] = l; outlines[o + 13] = b; outlines[o + 14] = l; outlines[o + 15] = t;
+    }
+
+    private void ensureCapacity(int cellsNumber, int dashesNumber) {
+        int outlinesLength = cellsNumber * OUTLINE_FLOATS + dashesNumber * DASH_FLOATS;
+        if(left.length != cellsNumber || outlines.length != outlinesLength) {
+            left = new float[cellsNumber];
+            top = new float[cellsNumber];
+            right = new float[cellsNumber];
+            bottom = new float[cellsNumber];
+            textCenterX = new float[cellsNumber];
+            textBaseline = new float[cellsNumber];
+            cursorLeft = new float[cellsNumber];
+            cursorRight = new float[cellsNumber];
+            outlines = new float[outlinesLength];
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.tixon.squarededittext;
+
+/**
+ * Pattern of groups of cells, e.g. "3-3" for 6 cells or "4-4-4-4" for 16 cells
+ * @see CellGeometry#update(int, int, float, float, int[], float, boolean)
+ */
+public class CellGroups {
+
+    private CellGroups() {
+    }
+
+    /**
+     * Parse sizes of groups separated by any non-digit symbols, e.g. "3-3", "4 4 4" or "2,3"
+     * @param pattern pattern of groups, null or empty for no groups
+     * @return sizes of groups or null if pattern has no groups
+     * @throws IllegalArgumentException if a group is empty
+     */
+    public static int[] parse(String pattern) {
+        if(pattern == null) {
+            return null;
+        }
+        int count = 0;
+        boolean inNumber = false;
+        for(int i = 0; i < pattern.length(); i++) {
+            boolean digit = Character.isDigit(pattern.charAt(i));
+            if(digit && !inNumber) {
+                count++;
+            }
+            inNumber = digit;
+        }
+        if(count == 0) {
+            return null;
+        }
+        int[] groups = new int[count];
+        int group = -1;
+        inNumber = false;
+        for(int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            boolean digit = Character.isDigit(c);
+            if(digit) {
+                if(!inNumber) {
+                    group++;
+                }
+                groups[group] = groups[group] * 10 + Character.digit(c, 10);
+            }
+            inNumber = digit;
+        }
+        for(int size : groups) {
+            if(size <= 0) {
+                throw new IllegalArgumentException("Empty group in pattern " + pattern);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * @return number of cells in all groups
+     */
+    public static int cellsNumber(int[] groups) {
+        int sum = 0;
+        for(int size : groups) {
+            sum += size;
+        }
+        return sum;
+    }
+}
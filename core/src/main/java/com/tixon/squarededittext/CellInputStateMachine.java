@@ -0,0 +1,293 @@
+package com.tixon.squarededittext;
+
+/**
+ * Input logic of cells without any Android dependencies.
+ *
+ * Machine has three states:
+ * TYPING - cursor is in the cell after the last symbol, typed symbol is added to the end;
+ * SELECTED - cursor selects the last symbol, typed symbol replaces it and deleting removes it;
+ * FILLED - all cells are filled and cursor is hidden, deleting removes the last symbol.
+ *
+ * Deleting while TYPING doesn't remove anything, it selects the last symbol with cursor.
+ * Activation of FILLED cells selects the last symbol too.
+ *
+ * Every keystroke is a lookup of action and next state in transition tables, next state depends
+ * only on how much of the buffer is filled after action, so no strings are built.
+ */
+public class CellInputStateMachine {
+
+    public enum State {
+        TYPING,
+        SELECTED,
+        FILLED
+    }
+
+    public enum Event {
+        TYPE,
+        DELETE,
+        ACTIVATE
+    }
+
+    private enum Action {
+        NONE,
+        APPEND,
+        REPLACE_LAST,
+        REMOVE_LAST
+    }
+
+    //how much of the buffer is filled
+    private static final int EMPTY = 0;
+    private static final int PARTIAL = 1;
+    private static final int FULL = 2;
+
+    private static final State TYPING = State.TYPING;
+    private static final State SELECTED = State.SELECTED;
+    private static final State FILLED = State.FILLED;
+
+    /**
+     * Action by [state][event]
+     */
+    private static final Action[][] ACTIONS = {
+            //TYPE                DELETE              ACTIVATE
+            {Action.APPEND,       Action.NONE,        Action.NONE}, //TYPING
+            {Action.REPLACE_LAST, Action.REMOVE_LAST, Action.NONE}, //SELECTED
+            {Action.NONE,         Action.REMOVE_LAST, Action.NONE}, //FILLED
+    };
+
+    /**
+     * Next state by [state][event][filling of buffer after action]
+     */
+    private static final State[][][] NEXT = {
+            //TYPING
+            {
+                    //EMPTY    PARTIAL   FULL
+                    {TYPING,   TYPING,   FILLED},   //TYPE
+                    {TYPING,   SELECTED, SELECTED}, //DELETE
+                    {TYPING,   TYPING,   TYPING},   //ACTIVATE
+            },
+            //SELECTED
+            {
+                    {TYPING,   TYPING,   FILLED},   //TYPE
+                    {TYPING,   SELECTED, SELECTED}, //DELETE
+                    {TYPING,   SELECTED, SELECTED}, //ACTIVATE
+            },
+            //FILLED
+            {
+                    {TYPING,   TYPING,   FILLED},   //TYPE
+                    {TYPING,   TYPING,   FILLED},   //DELETE
+                    {TYPING,   TYPING,   SELECTED}, //ACTIVATE
+            },
+    };
+
+    private CellBuffer text;
+    private State state = TYPING;
+    //true for numeric codes, letters are not placed into cells
+    private boolean digitsOnly = false;
+
+    public CellInputStateMachine(int capacity) {
+        text = new CellBuffer(capacity);
+    }
+
+    /**
+     * Change number of cells keeping symbols which fit into them
+     * @param capacity number of cells
+     */
+    public void resize(int capacity) {
+        if(text.capacity() != capacity) {
+            text = text.resized(capacity);
+            matchStateToText();
+        }
+    }
+
+    /**
+     * Put back symbols and state saved before, e.g. when activity is recreated
+     * @param symbols saved symbols, those which don't fit into cells are dropped
+     * @param state saved state, it is corrected if it doesn't match symbols
+     */
+    public void restore(CharSequence symbols, State state) {
+        text.set(symbols);
+        this.state = state;
+        matchStateToText();
+    }
+
+    /**
+     * Accept only digits, e.g. when keyboard is numeric. Typed and filled letters
+     * are dropped then, symbols which are already in cells are kept
+     */
+    public void setDigitsOnly(boolean digitsOnly) {
+        this.digitsOnly = digitsOnly;
+    }
+
+    public boolean isDigitsOnly() {
+        return digitsOnly;
+    }
+
+    /**
+     * Keep state after symbols were changed not by events, selected symbol stays selected
+     */
+    private void matchStateToText() {
+        if(text.isEmpty()) {
+            state = TYPING;
+        } else if(text.isFull()) {
+            if(state != SELECTED) {
+                state = FILLED;
+            }
+        } else if(state == FILLED) {
+            state = TYPING;
+        }
+    }
+
+    /**
+     * User typed a symbol, a letter is dropped if only digits are accepted
+     * @param c typed symbol
+     * @return true if this symbol has filled all the cells
+     */
+    public boolean type(char c) {
+        return apply(Event.TYPE, c);
+    }
+
+    /**
+     * User typed several symbols at once, e.g. keyboard committed a suggestion.
+     * Symbols which don't fit into cells are dropped
+     * @return true if these symbols have filled all the cells
+     */
+    public boolean typeAll(CharSequence symbols, int start, int end) {
+        boolean filled = false;
+        for(int i = start; i < end && state != FILLED; i++) {
+            filled |= type(symbols.charAt(i));
+        }
+        return filled;
+    }
+
+    /**
+     * Replace all symbols with a code pasted or filled by autofill.
+     * Only code symbols are placed into cells, so separators of "123-456" or
+     * "123 456" are skipped. If there are no such symbols, cells are not changed
+     * @return true if the code has filled all the cells
+     */
+    public boolean fill(CharSequence code, int start, int end) {
+        int symbols = 0;
+        for(int i = start; i < end; i++) {
+            if(isCodeSymbol(code.charAt(i))) {
+                symbols++;
+            }
+        }
+        if(symbols == 0) {
+            return false;
+        }
+        clear();
+        boolean filled = false;
+        for(int i = start; i < end && state != FILLED; i++) {
+            char c = code.charAt(i);
+            if(isCodeSymbol(c)) {
+                filled |= type(c);
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * @return true if symbol may be placed into cells: a digit, or a letter unless
+     * only digits are accepted
+     */
+    public boolean isCodeSymbol(char c) {
+        return digitsOnly ? Character.isDigit(c) : Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * User deleted a symbol
+     */
+    public void delete() {
+        apply(Event.DELETE, (char) 0);
+    }
+
+    /**
+     * Select the last symbol of filled cells with cursor
+     * @return true if cells were filled and the last symbol became selected
+     */
+    public boolean activate() {
+        State old = state;
+        apply(Event.ACTIVATE, (char) 0);
+        return old == FILLED && state == SELECTED;
+    }
+
+    /**
+     * Remove all symbols and return to initial state
+     */
+    public void clear() {
+        text.clear();
+        state = TYPING;
+    }
+
+    /**
+     * Apply event to current state
+     * @return true if machine has become FILLED after typing
+     */
+    public boolean apply(Event event, char c) {
+        if(event == Event.TYPE && digitsOnly && !Character.isDigit(c)) {
+            return false;
+        }
+        State old = state;
+        Action action = ACTIONS[old.ordinal()][event.ordinal()];
+        switch(action) {
+            case APPEND:
+                text.append(c);
+                break;
+            case REPLACE_LAST:
+                text.replaceLast(c);
+                break;
+            case REMOVE_LAST:
+                text.removeLast();
+                break;
+            case NONE:
+                break;
+        }
+        state = NEXT[old.ordinal()][event.ordinal()][filling()];
+        return event == Event.TYPE && old != FILLED && state == FILLED;
+    }
+
+    private int filling() {
+        if(text.isEmpty()) {
+            return EMPTY;
+        }
+        return text.isFull() ? FULL : PARTIAL;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Symbols in cells, must not be modified outside of machine
+     */
+    public CellBuffer text() {
+        return text;
+    }
+
+    /**
+     * Index of cell selected with cursor
+     * @return index of cell or -1 if cursor is hidden
+     */
+    public int cursorCell() {
+        switch(state) {
+            case TYPING:
+                return text.length();
+            case SELECTED:
+                return text.length() - 1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Number of symbols which should be in Editable, so that the next keystroke of keyboard
+     * can be mapped to an event. When the last symbol of filled cells is selected, it is kept
+     * out of Editable, otherwise maxLength of EditText would block typing
+     */
+    public int editableLength() {
+        if(state == SELECTED && text.isFull()) {
+            return text.length() - 1;
+        }
+        return text.length();
+    }
+}
@@ -0,0 +1,125 @@
+package com.tixon.squarededittext;
+
+/**
+ * Window of cells which are laid out and drawn when cells don't fit into view.
+ * Only the visible cells have geometry, cell with index first is drawn in the first slot.
+ * @see LoginEditText#setVisibleCellsNumber(int)
+ */
+public class CellWindow {
+    private int cellsNumber;
+    private int visible;
+    private int first;
+
+    public CellWindow(int cellsNumber) {
+        resize(cellsNumber, 0);
+    }
+
+    /**
+     * @param cellsNumber number of all cells
+     * @param visibleNumber number of visible cells, 0 or more than cellsNumber to show all
+     */
+    public void resize(int cellsNumber, int visibleNumber) {
+        this.cellsNumber = cellsNumber;
+        if(visibleNumber <= 0 || visibleNumber > cellsNumber) {
+            visibleNumber = cellsNumber;
+        }
+        this.visible = visibleNumber;
+        first = Math.max(0, Math.min(first, cellsNumber - visibleNumber));
+    }
+
+    /**
+     * Scroll so that cell becomes visible, as little as possible
+     * @param cell index of cell, nothing is scrolled if it is negative
+     * @return true if window has moved
+     */
+    public boolean scrollTo(int cell) {
+        if(cell < 0) {
+            return false;
+        }
+        int newFirst = first;
+        if(cell < first) {
+            newFirst = cell;
+        } else if(cell >= first + visible) {
+            newFirst = Math.min(cell, cellsNumber - 1) - visible + 1;
+        }
+        if(newFirst == first) {
+            return false;
+        }
+        first = newFirst;
+        return true;
+    }
+
+    public int first() {
+        return first;
+    }
+
+    /**
+     * @return number of slots, i.e. visible cells
+     */
+    public int visible() {
+        return visible;
+    }
+
+    /**
+     * @return true if not all cells are visible
+     */
+    public boolean isScrolling() {
+        return visible < cellsNumber;
+    }
+
+    /**
+     * @return slot where cell is drawn, may be out of 0..visible-1 for hidden cells
+     */
+    public int slot(int cell) {
+        return cell - first;
+    }
+
+    /**
+     * Find slots to redraw after change of symbols or cursor: cells whose symbols changed
+     * and cells of old and new cursor positions. Window is scrolled to the new cursor,
+     * then all visible slots are redrawn
+     * @param oldText symbols before change
+     * @param oldCursorCell cursor cell before change, negative if cursor was hidden
+     * @param text symbols after change
+     * @param newCursorCell cursor cell after change, negative if cursor is hidden
+     * @param out array of two to store the first and the last slot
+     * @return true if any visible slot has to be redrawn
+     */
+    public boolean changedSlots(CharSequence oldText, int oldCursorCell, CharSequence text,
+                                int newCursorCell, int[] out) {
+        if(scrollTo(newCursorCell)) {
+            //all visible cells show other symbols now
+            out[0] = 0;
+            out[1] = visible - 1;
+            return true;
+        }
+        int firstCell = Integer.MAX_VALUE;
+        int lastCell = -1;
+        if(oldCursorCell != newCursorCell) {
+            if(oldCursorCell >= 0) {
+                firstCell = oldCursorCell;
+                lastCell = oldCursorCell;
+            }
+            if(newCursorCell >= 0) {
+                firstCell = Math.min(firstCell, newCursorCell);
+                lastCell = Math.max(lastCell, newCursorCell);
+            }
+        }
+
+        int common = Math.min(oldText.length(), text.length());
+        int changed = 0;
+        while(changed < common && oldText.charAt(changed) == text.charAt(changed)) {
+            changed++;
+        }
+        int longest = Math.max(oldText.length(), text.length());
+        if(changed < longest) {
+            firstCell = Math.min(firstCell, changed);
+            lastCell = Math.max(lastCell, longest - 1);
+        }
+
+        //cells to slots, hidden cells are not redrawn
+        out[0] = Math.max(slot(firstCell), 0);
+        out[1] = Math.min(slot(lastCell), visible - 1);
+        return out[1] >= 0 && out[0] <= out[1];
+    }
+}
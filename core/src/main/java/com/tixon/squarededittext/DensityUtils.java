@@ -0,0 +1,32 @@
+package com.tixon.squarededittext;
+
+/**
+ * Conversions between dp and pixels for given horizontal density of display.
+ * Doesn't depend on Android, so it can be measured and tested on JVM.
+ * @see Utils
+ */
+public class DensityUtils {
+    //the same as DisplayMetrics.DENSITY_DEFAULT
+    public static final int DENSITY_DEFAULT = 160;
+
+    public static float dpToPx(float dp, float xdpi) {
+        return dp * (xdpi / (float) DENSITY_DEFAULT);
+    }
+
+    /**
+     * Convert several dp values at once
+     * @param dp values in dp
+     * @param px array to store values in pixels, at least of dp.length
+     * @param xdpi horizontal density of display
+     */
+    public static void dpToPx(float[] dp, float[] px, float xdpi) {
+        float factor = xdpi / (float) DENSITY_DEFAULT;
+        for(int i = 0; i < dp.length; i++) {
+            px[i] = dp[i] * factor;
+        }
+    }
+
+    public static int pxToDp(int px, float xdpi) {
+        return Math.round(px / (xdpi / DENSITY_DEFAULT));
+    }
+}
@@ -0,0 +1,114 @@
+package com.tixon.squarededittext;
+
+import java.util.Arrays;
+
+/**
+ * Measured advances of symbols for one text size and typeface.
+ * Symbols are primitive keys of a small open-addressing table, so lookup doesn't box
+ * anything and each distinct symbol is measured only once.
+ * The table is cleared when text size or typeface changes.
+ */
+public class GlyphAdvanceCache {
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private float[] advances;
+    private int size;
+
+    private float textSize = Float.NaN;
+    private Object typeface;
+
+    public GlyphAdvanceCache() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Set style which advances are measured for, clears the table if style has changed
+     * @param textSize text size in pixels
+     * @param typeface typeface, compared by identity, may be null
+     */
+    public void setStyle(float textSize, Object typeface) {
+        if(Float.compare(this.textSize, textSize) != 0 || this.typeface != typeface) {
+            this.textSize = textSize;
+            this.typeface = typeface;
+            clear();
+        }
+    }
+
+    /**
+     * @param c symbol
+     * @return advance of symbol or NaN if it has not been measured yet
+     */
+    public float get(char c) {
+        int mask = keys.length - 1;
+        for(int i = hash(c) & mask; ; i = (i + 1) & mask) {
+            int key = keys[i];
+            if(key == c) {
+                return advances[i];
+            }
+            if(key == EMPTY) {
+                return Float.NaN;
+            }
+        }
+    }
+
+    /**
+     * @param c symbol
+     * @param advance measured advance of symbol
+     */
+    public void put(char c, float advance) {
+        //keep table at most half full, so probe sequences stay short
+        if((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        insert(c, advance);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        if(size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    private void insert(char c, float advance) {
+        int mask = keys.length - 1;
+        int i = hash(c) & mask;
+        while(keys[i] != EMPTY && keys[i] != c) {
+            i = (i + 1) & mask;
+        }
+        if(keys[i] == EMPTY) {
+            keys[i] = c;
+            size++;
+        }
+        advances[i] = advance;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        float[] oldAdvances = advances;
+        allocate(oldKeys.length * 2);
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != EMPTY) {
+                insert((char) oldKeys[i], oldAdvances[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        advances = new float[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private static int hash(char c) {
+        //digits and latin letters are sequential, spread them a bit
+        return c * 0x9E3779B1 >>> 16;
+    }
+}
@@ -0,0 +1,99 @@
+package com.tixon.squarededittext;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class CellBufferTest {
+    private static final String CODE = "12345678";
+
+    @Test
+    public void editing_changesSymbols() throws Exception {
+        CellBuffer buffer = new CellBuffer(4);
+        buffer.set("123456");
+        assertEquals("1234", buffer.toString());
+        assertTrue(buffer.isFull());
+
+        buffer.append('5');
+        buffer.replaceLast('9');
+        assertEquals("1239", buffer.toString());
+
+        buffer.removeLast();
+        buffer.set("x12", 1, 3);
+        assertEquals("12", buffer.toString());
+
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        buffer.removeLast();
+        assertEquals(0, buffer.length());
+    }
+
+    @Test
+    public void resized_keepsSymbolsWhichFit() throws Exception {
+        CellBuffer buffer = new CellBuffer(8);
+        buffer.set(CODE);
+        assertEquals("1234", buffer.resized(4).toString());
+        assertEquals(CODE, buffer.resized(16).toString());
+    }
+
+    @Test
+    public void keystrokes_doNotAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        CellInputStateMachine input = new CellInputStateMachine(CODE.length());
+        CellBuffer previousText = new CellBuffer(CODE.length());
+        CellWindow window = new CellWindow(CODE.length());
+        window.resize(CODE.length(), CODE.length() / 2);
+        int[] slots = new int[2];
+
+        //warm up, so measured code is compiled
+        for(int i = 0; i < 20000; i++) {
+            typeAndDelete(input, previousText, window, slots);
+        }
+
+        long start = threads.getThreadAllocatedBytes(thread);
+        long overhead = threads.getThreadAllocatedBytes(thread) - start;
+        start = threads.getThreadAllocatedBytes(thread);
+        for(int i = 0; i < 1000; i++) {
+            typeAndDelete(input, previousText, window, slots);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - start - overhead;
+        assertEquals(0, allocated);
+    }
+
+    /**
+     * Type all symbols, replace the last one and delete them all. Each keystroke does
+     * what LoginEditText does with cells: remembers them, applies keystroke to machine
+     * and finds changed slots of scrolled window
+     */
+    private static void typeAndDelete(CellInputStateMachine input, CellBuffer previousText,
+                                      CellWindow window, int[] slots) {
+        for(int i = 0; i < CODE.length(); i++) {
+            keystroke(input, previousText, window, slots, CODE.charAt(i));
+        }
+        input.activate();
+        keystroke(input, previousText, window, slots, '0');
+        while(!input.text().isEmpty()) {
+            keystroke(input, previousText, window, slots, (char) 0);
+        }
+        assertEquals(0, window.first());
+    }
+
+    /**
+     * @param symbol typed symbol or 0 to delete
+     */
+    private static void keystroke(CellInputStateMachine input, CellBuffer previousText,
+                                  CellWindow window, int[] slots, char symbol) {
+        previousText.set(input.text());
+        int previousCursorCell = input.cursorCell();
+        if(symbol != 0) {
+            input.type(symbol);
+        } else {
+            input.delete();
+        }
+        window.changedSlots(previousText, previousCursorCell, input.text(), input.cursorCell(), slots);
+    }
+}
@@ -0,0 +1,148 @@
+package com.tixon.squarededittext;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CellGeometryTest {
+    @Test
+    public void cells_fitIntoWidth() throws Exception {
+        CellGeometry geometry = new CellGeometry();
+        for(int cells = 1; cells <= 16; cells++) {
+            geometry.update(640, cells, 1.0f, 2.0f);
+            assertEquals(cells, geometry.left.length);
+            assertTrue(geometry.left[0] >= 0.0f);
+            assertTrue(geometry.right[cells - 1] <= 640.0f);
+            for(int i = 1; i < cells; i++) {
+                assertTrue(geometry.left[i] > geometry.right[i - 1]);
+            }
+        }
+    }
+
+    @Test
+    public void cursor_isInsideCell() throws Exception {
+        CellGeometry geometry = new CellGeometry();
+        geometry.update(462, 8, 2.0f, 4.0f);
+        for(int i = 0; i < 8; i++) {
+            assertTrue(geometry.cursorLeft[i] >= geometry.left[i]);
+            assertTrue(geometry.cursorRight[i] <= geometry.right[i]);
+            assertEquals((geometry.left[i] + geometry.right[i]) / 2.0f, geometry.textCenterX[i], 0.001f);
+        }
+    }
+
+    @Test
+    public void underline_collapsesCursorIntoBottomLine() throws Exception {
+        CellGeometry geometry = new CellGeometry();
+        geometry.setCursorUnderline(true);
+        for(boolean snapping : new boolean[] {false, true}) {
+            geometry.setPixelSnapping(snapping);
+            geometry.update(462, 8, 2.0f, 4.0f);
+            assertEquals(geometry.cursorBottom, geometry.cursorTop, 0.0f);
+            assertTrue(geometry.cursorBottom <= geometry.bottom[0]);
+        }
+    }
+
+    @Test
+    public void groups_separatedByGap() throws Exception {
+        CellGeometry flat = new CellGeometry();
+        flat.update(640, 6, 1.0f, 2.0f);
+        float flatInterval = flat.left[1] - flat.right[0];
+
+        CellGeometry geometry = new CellGeometry();
+        geometry.update(640, 6, 1.0f, 2.0f, new int[] {3, 3}, 20.0f, true);
+        assertTrue(geometry.right[5] <= 640.0f);
+        float inGroup = geometry.left[1] - geometry.right[0];
+        float betweenGroups = geometry.left[3] - geometry.right[2];
+        assertEquals(inGroup + 20.0f, betweenGroups, 0.001f);
+        assertTrue(inGroup < flatInterval);
+        for(int i = 0; i < 6; i++) {
+            assertTrue(geometry.cursorLeft[i] >= geometry.left[i]);
+            assertTrue(geometry.cursorRight[i] <= geometry.right[i]);
+        }
+
+        //a dash is packed after outlines, inside of the gap
+        assertEquals(1, geometry.dashesNumber);
+        assertEquals(6 * CellGeometry.OUTLINE_FLOATS + CellGeometry.DASH_FLOATS, geometry.outlinesLength);
+        int dash = 6 * CellGeometry.OUTLINE_FLOATS;
+        assertTrue(geometry.outlines[dash] > geometry.right[2]);
+        assertTrue(geometry.outlines[dash + 2] < geometry.left[3]);
+    }
+
+    @Test
+    public void groups_ignoredWhenNotMatchingCells() throws Exception {
+        CellGeometry flat = new CellGeometry();
+        flat.update(640, 6, 1.0f, 2.0f);
+        CellGeometry geometry = new CellGeometry();
+        geometry.update(640, 6, 1.0f, 2.0f, new int[] {4, 4}, 20.0f, true);
+        assertArrayEquals(flat.left, geometry.left, 0.0f);
+        assertEquals(0, geometry.dashesNumber);
+    }
+
+    @Test
+    public void widthFor_givesSquaresOfThatWidth() throws Exception {
+        CellGeometry geometry = new CellGeometry();
+        int[][] groups = {null, {3, 3}};
+        for(int[] group : groups) {
+            float width = geometry.widthFor(26.0f, 6, group, 8.0f);
+            geometry.update(Math.round(width), 6, 1.0f, 2.0f, group, 8.0f, false);
+            assertEquals(26.0f, geometry.squareWidth, 0.1f);
+        }
+    }
+
+    @Test
+    public void pixelSnapping_givesWholePixels() throws Exception {
+        CellGeometry geometry = new CellGeometry();
+        geometry.setPixelSnapping(true);
+        for(int width = 300; width <= 320; width++) {
+            for(int cells = 1; cells <= 16; cells++) {
+                geometry.update(width, cells, 1.0f, 2.0f);
+                int minGap = Integer.MAX_VALUE;
+                int maxGap = Integer.MIN_VALUE;
+                for(int i = 0; i < cells; i++) {
+                    assertWhole(geometry.left[i]);
+                    assertWhole(geometry.right[i]);
+                    assertWhole(geometry.top[i]);
+                    assertWhole(geometry.cursorLeft[i]);
+                    assertWhole(geometry.cursorRight[i]);
+                    assertEquals(geometry.squareWidth, geometry.right[i] - geometry.left[i], 0.0f);
+                    assertTrue(geometry.cursorLeft[i] >= geometry.left[i]);
+                    assertTrue(geometry.cursorRight[i] <= geometry.right[i]);
+                    if(i > 0) {
+                        int gap = (int) (geometry.left[i] - geometry.right[i - 1]);
+                        minGap = Math.min(minGap, gap);
+                        maxGap = Math.max(maxGap, gap);
+                    }
+                }
+                assertTrue(geometry.right[cells - 1] <= width);
+                //leftover pixels are spread evenly
+                assertTrue(cells == 1 || maxGap - minGap <= 1);
+            }
+        }
+    }
+
+    @Test
+    public void pixelSnapping_keepsGroupGaps() throws Exception {
+        CellGeometry geometry = new CellGeometry();
+        geometry.setPixelSnapping(true);
+        geometry.update(641, 6, 1.0f, 2.0f, new int[] {3, 3}, 20.5f, true);
+        float inGroup = geometry.left[1] - geometry.right[0];
+        float betweenGroups = geometry.left[3] - geometry.right[2];
+        assertTrue(betweenGroups >= inGroup + 19.0f);
+        int dash = 6 * CellGeometry.OUTLINE_FLOATS;
+        for(int i = 0; i < CellGeometry.DASH_FLOATS; i++) {
+            assertWhole(geometry.outlines[dash + i]);
+        }
+    }
+
+    @Test
+    public void noCells_laidOutEmpty() throws Exception {
+        CellGeometry geometry = new CellGeometry();
+        geometry.setPixelSnapping(true);
+        geometry.update(640, 0, 1.0f, 2.0f);
+        assertEquals(0, geometry.outlinesLength);
+    }
+
+    private static void assertWhole(float value) {
+        assertEquals(Math.round(value), value, 0.0f);
+    }
+}
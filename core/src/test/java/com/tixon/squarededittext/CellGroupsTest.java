@@ -0,0 +1,27 @@
+package com.tixon.squarededittext;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CellGroupsTest {
+    @Test
+    public void parse_splitsOnNonDigits() throws Exception {
+        assertArrayEquals(new int[] {3, 3}, CellGroups.parse("3-3"));
+        assertArrayEquals(new int[] {4, 4, 4, 4}, CellGroups.parse("4 4 4 4"));
+        assertArrayEquals(new int[] {12, 2}, CellGroups.parse(" 12,2 "));
+        assertEquals(14, CellGroups.cellsNumber(CellGroups.parse("12,2")));
+    }
+
+    @Test
+    public void parse_noGroups() throws Exception {
+        assertNull(CellGroups.parse(null));
+        assertNull(CellGroups.parse(""));
+        assertNull(CellGroups.parse("-"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsEmptyGroup() throws Exception {
+        CellGroups.parse("3-0-3");
+    }
+}
@@ -0,0 +1,278 @@
+package com.tixon.squarededittext;
+
+import com.tixon.squarededittext.CellInputStateMachine.Event;
+import com.tixon.squarededittext.CellInputStateMachine.State;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CellInputStateMachineTest {
+    private static final int MAX_CELLS = 4;
+    private static final int MAX_SEQUENCE = 7;
+
+    @Test
+    public void typing_fillsCellsAndFinishes() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(3);
+        assertFalse(input.type('1'));
+        assertFalse(input.type('2'));
+        assertEquals(2, input.cursorCell());
+        assertTrue(input.type('3'));
+        assertEquals(State.FILLED, input.state());
+        assertEquals(-1, input.cursorCell());
+        assertEquals("123", input.text().toString());
+
+        //cells are full, symbol is ignored
+        assertFalse(input.type('4'));
+        assertEquals("123", input.text().toString());
+    }
+
+    @Test
+    public void deleting_selectsLastSymbolFirst() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(8);
+        input.type('1');
+        input.type('2');
+
+        input.delete();
+        assertEquals(State.SELECTED, input.state());
+        assertEquals("12", input.text().toString());
+        assertEquals(1, input.cursorCell());
+
+        input.delete();
+        assertEquals(State.SELECTED, input.state());
+        assertEquals("1", input.text().toString());
+        assertEquals(0, input.cursorCell());
+
+        input.delete();
+        assertEquals(State.TYPING, input.state());
+        assertEquals(0, input.text().length());
+        assertEquals(0, input.cursorCell());
+    }
+
+    @Test
+    public void typing_replacesSelectedSymbol() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(8);
+        input.type('1');
+        input.type('2');
+        input.delete();
+
+        input.type('5');
+        assertEquals(State.TYPING, input.state());
+        assertEquals("15", input.text().toString());
+        assertEquals(2, input.cursorCell());
+    }
+
+    @Test
+    public void activation_selectsLastSymbolOfFilledCells() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(3);
+        input.type('1');
+        assertFalse(input.activate());
+
+        input.type('2');
+        input.type('3');
+        assertEquals(3, input.editableLength());
+        assertTrue(input.activate());
+        assertEquals(State.SELECTED, input.state());
+        assertEquals(2, input.cursorCell());
+        assertEquals(2, input.editableLength());
+
+        //replacing the last symbol fills cells again
+        assertTrue(input.type('9'));
+        assertEquals("129", input.text().toString());
+
+        input.activate();
+        input.delete();
+        assertEquals(State.SELECTED, input.state());
+        assertEquals("12", input.text().toString());
+        assertEquals(1, input.cursorCell());
+    }
+
+    @Test
+    public void filledCells_deleteLastSymbol() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(2);
+        input.type('1');
+        input.type('2');
+        input.delete();
+        assertEquals(State.TYPING, input.state());
+        assertEquals("1", input.text().toString());
+        assertEquals(1, input.cursorCell());
+    }
+
+    @Test
+    public void resize_keepsStateConsistent() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(4);
+        input.type('1');
+        input.type('2');
+        input.type('3');
+        input.resize(2);
+        assertEquals(State.FILLED, input.state());
+        assertEquals("12", input.text().toString());
+        input.resize(8);
+        assertEquals(State.TYPING, input.state());
+        assertEquals(2, input.cursorCell());
+    }
+
+    @Test
+    public void restore_keepsStateConsistent() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(4);
+        input.restore("12", State.SELECTED);
+        assertEquals(State.SELECTED, input.state());
+        assertEquals(1, input.cursorCell());
+
+        input.restore("123456", State.TYPING);
+        assertEquals("1234", input.text().toString());
+        assertEquals(State.FILLED, input.state());
+
+        input.restore("12", State.FILLED);
+        assertEquals(State.TYPING, input.state());
+
+        input.restore("", State.SELECTED);
+        assertEquals(State.TYPING, input.state());
+        assertEquals(0, input.cursorCell());
+    }
+
+    /**
+     * Runs every sequence of events up to MAX_SEQUENCE long for every number of cells up to
+     * MAX_CELLS and compares machine with straightforward model of the same rules
+     */
+    @Test
+    public void allSequences_matchModel() throws Exception {
+        Event[] events = Event.values();
+        for(int cells = 1; cells <= MAX_CELLS; cells++) {
+            int sequences = (int) Math.pow(events.length, MAX_SEQUENCE);
+            for(int sequence = 0; sequence < sequences; sequence++) {
+                CellInputStateMachine input = new CellInputStateMachine(cells);
+                Model model = new Model(cells);
+                int code = sequence;
+                for(int step = 0; step < MAX_SEQUENCE; step++) {
+                    Event event = events[code % events.length];
+                    code /= events.length;
+                    char c = (char) ('0' + step);
+
+                    boolean finished = input.apply(event, c);
+                    boolean modelFinished = model.apply(event, c);
+
+                    String message = "cells " + cells + ", sequence " + sequence + ", step " + step;
+                    assertEquals(message, modelFinished, finished);
+                    assertEquals(message, model.text.toString(), input.text().toString());
+                    assertEquals(message, model.cursorCell(), input.cursorCell());
+                    assertInvariants(message, input, cells);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fill_matchesTypingOneByOne() throws Exception {
+        for(int cells = 1; cells <= 8; cells++) {
+            CellInputStateMachine bulk = new CellInputStateMachine(cells);
+            bulk.type('x');
+            boolean bulkFinished = bulk.fill("12-34 56", 0, 8);
+
+            CellInputStateMachine single = new CellInputStateMachine(cells);
+            boolean singleFinished = false;
+            for(char c : "123456".toCharArray()) {
+                singleFinished |= single.type(c);
+            }
+            assertEquals(singleFinished, bulkFinished);
+            assertEquals(single.text().toString(), bulk.text().toString());
+            assertEquals(single.state(), bulk.state());
+            assertEquals(single.cursorCell(), bulk.cursorCell());
+        }
+    }
+
+    @Test
+    public void fill_withoutSymbols_keepsCells() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(4);
+        input.type('1');
+        assertFalse(input.fill(" - ", 0, 3));
+        assertEquals("1", input.text().toString());
+    }
+
+    @Test
+    public void digitsOnly_dropsLetters() throws Exception {
+        CellInputStateMachine input = new CellInputStateMachine(4);
+        input.setDigitsOnly(true);
+        input.type('1');
+        input.type('a');
+        assertEquals("1", input.text().toString());
+        assertEquals(State.TYPING, input.state());
+
+        //letters of a filled code are skipped as separators
+        assertTrue(input.fill("1a2-b34", 0, 7));
+        assertEquals("1234", input.text().toString());
+        assertFalse(input.fill("abc", 0, 3));
+        assertEquals("1234", input.text().toString());
+    }
+
+    private static void assertInvariants(String message, CellInputStateMachine input, int cells) {
+        int length = input.text().length();
+        assertTrue(message, length >= 0 && length <= cells);
+        assertTrue(message, input.editableLength() <= length);
+        switch(input.state()) {
+            case TYPING:
+                assertTrue(message, length < cells);
+                break;
+            case SELECTED:
+                assertTrue(message, length > 0);
+                break;
+            case FILLED:
+                assertEquals(message, cells, length);
+                break;
+        }
+        int cursor = input.cursorCell();
+        assertTrue(message, cursor >= -1 && cursor < cells);
+    }
+
+    /**
+     * Rules of cells written without transition tables
+     */
+    private static class Model {
+        final int cells;
+        final StringBuilder text = new StringBuilder();
+        boolean selected;
+
+        Model(int cells) {
+            this.cells = cells;
+        }
+
+        boolean apply(Event event, char c) {
+            boolean full = text.length() == cells;
+            switch(event) {
+                case TYPE:
+                    if(selected) {
+                        text.setCharAt(text.length() - 1, c);
+                        selected = false;
+                    } else if(!full) {
+                        text.append(c);
+                    } else {
+                        return false;
+                    }
+                    return text.length() == cells;
+                case DELETE:
+                    if(selected || full) {
+                        if(text.length() > 0) {
+                            text.setLength(text.length() - 1);
+                        }
+                        selected = selected && text.length() > 0;
+                    } else if(text.length() > 0) {
+                        selected = true;
+                    }
+                    return false;
+                case ACTIVATE:
+                    if(full) {
+                        selected = true;
+                    }
+                    return false;
+            }
+            return false;
+        }
+
+        int cursorCell() {
+            if(selected) {
+                return text.length() - 1;
+            }
+            return text.length() == cells ? -1 : text.length();
+        }
+    }
+}
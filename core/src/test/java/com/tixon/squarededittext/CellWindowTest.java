@@ -0,0 +1,71 @@
+package com.tixon.squarededittext;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CellWindowTest {
+
+    @Test
+    public void allCellsVisible_byDefault() throws Exception {
+        CellWindow window = new CellWindow(8);
+        assertEquals(8, window.visible());
+        assertFalse(window.isScrolling());
+        assertFalse(window.scrollTo(7));
+        assertEquals(0, window.first());
+    }
+
+    @Test
+    public void scrollTo_keepsCellInWindow() throws Exception {
+        CellWindow window = new CellWindow(64);
+        window.resize(64, 8);
+        assertTrue(window.isScrolling());
+        for(int cell = 0; cell < 64; cell++) {
+            window.scrollTo(cell);
+            int slot = window.slot(cell);
+            assertTrue(slot >= 0 && slot < 8);
+        }
+        assertEquals(56, window.first());
+
+        //moving back scrolls only when cell leaves the window
+        assertFalse(window.scrollTo(60));
+        assertTrue(window.scrollTo(10));
+        assertEquals(10, window.first());
+        assertFalse(window.scrollTo(-1));
+    }
+
+    @Test
+    public void resize_clampsWindow() throws Exception {
+        CellWindow window = new CellWindow(64);
+        window.resize(64, 8);
+        window.scrollTo(63);
+        window.resize(16, 8);
+        assertEquals(8, window.first());
+        window.resize(16, 32);
+        assertEquals(0, window.first());
+        assertEquals(16, window.visible());
+    }
+
+    @Test
+    public void changedSlots_coverSymbolsAndCursor() throws Exception {
+        CellWindow window = new CellWindow(8);
+        int[] slots = new int[2];
+        //typed the third symbol, cursor moved from cell 2 to cell 3
+        assertTrue(window.changedSlots("12", 2, "123", 3, slots));
+        assertEquals(2, slots[0]);
+        assertEquals(3, slots[1]);
+        //nothing changed
+        assertFalse(window.changedSlots("123", 3, "123", 3, slots));
+    }
+
+    @Test
+    public void changedSlots_allVisibleWhenScrolled() throws Exception {
+        CellWindow window = new CellWindow(16);
+        window.resize(16, 4);
+        int[] slots = new int[2];
+        assertTrue(window.changedSlots("1234", 4, "12345", 5, slots));
+        assertEquals(0, slots[0]);
+        assertEquals(3, slots[1]);
+        assertEquals(2, window.first());
+    }
+}
@@ -0,0 +1,45 @@
+package com.tixon.squarededittext;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GlyphAdvanceCacheTest {
+    @Test
+    public void advances_areStoredPerSymbol() throws Exception {
+        GlyphAdvanceCache cache = new GlyphAdvanceCache();
+        cache.setStyle(24.0f, null);
+        assertTrue(Float.isNaN(cache.get('1')));
+
+        for(char c = 0; c < 100; c++) {
+            cache.put(c, c / 2.0f);
+        }
+        assertEquals(100, cache.size());
+        for(char c = 0; c < 100; c++) {
+            assertEquals(c / 2.0f, cache.get(c), 0.0f);
+        }
+
+        cache.put('1', 7.0f);
+        assertEquals(100, cache.size());
+        assertEquals(7.0f, cache.get('1'), 0.0f);
+        assertTrue(Float.isNaN(cache.get('z')));
+    }
+
+    @Test
+    public void changingStyle_clearsAdvances() throws Exception {
+        GlyphAdvanceCache cache = new GlyphAdvanceCache();
+        Object typeface = new Object();
+        cache.setStyle(24.0f, typeface);
+        cache.put('1', 10.0f);
+
+        cache.setStyle(24.0f, typeface);
+        assertEquals(10.0f, cache.get('1'), 0.0f);
+
+        cache.setStyle(32.0f, typeface);
+        assertTrue(Float.isNaN(cache.get('1')));
+
+        cache.put('1', 10.0f);
+        cache.setStyle(32.0f, new Object());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,13 @@
+# ProGuard rules of the library, they are also applied to apps which use it.
+
+# LoginEditText is inflated from layouts by its constructors
+-keep public class com.tixon.squarededittext.LoginEditText {
+    public <init>(android.content.Context, android.util.AttributeSet);
+    public <init>(android.content.Context, android.util.AttributeSet, int);
+}
+
+# CodeInputView is inflated from layouts the same way
+-keep public class com.tixon.squarededittext.CodeInputView {
+    public <init>(android.content.Context, android.util.AttributeSet);
+    public <init>(android.content.Context, android.util.AttributeSet, int);
+}
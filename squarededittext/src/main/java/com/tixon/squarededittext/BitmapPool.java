@@ -0,0 +1,52 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import java.util.ArrayList;
+
+/**
+ * Small pool of bitmaps keyed by their size. Keeps rasterized backgrounds of
+ * @see LoginEditText
+ * so a bitmap released on size change or detach can be reused by the next one of the same size.
+ * Pool is accessed from the main thread only.
+ */
+class BitmapPool {
+    private static final int MAX_POOL_SIZE = 4;
+    private static final ArrayList<Bitmap> pool = new ArrayList<>(MAX_POOL_SIZE);
+
+    private BitmapPool() {
+    }
+
+    /**
+     * Get transparent bitmap of given size from pool or create a new one
+     * @param width width of bitmap
+     * @param height height of bitmap
+     * @return bitmap which is not used by anyone else
+     */
+    static Bitmap acquire(int width, int height) {
+        for(int i = pool.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = pool.get(i);
+            if(bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                pool.remove(i);
+                bitmap.eraseColor(Color.TRANSPARENT);
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Return bitmap to pool. The oldest bitmap is recycled when pool is full
+     * @param bitmap bitmap which is not used anymore, may be null
+     */
+    static void release(Bitmap bitmap) {
+        if(bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        if(pool.size() == MAX_POOL_SIZE) {
+            pool.remove(0).recycle();
+        }
+        pool.add(bitmap);
+    }
+}
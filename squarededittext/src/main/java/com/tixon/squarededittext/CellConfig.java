@@ -0,0 +1,213 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+
+import java.util.WeakHashMap;
+
+/**
+ * Custom attributes of
+ * @see LoginEditText
+ * read once. Config doesn't change after it is read.
+ *
+ * When a view has no LoginEditText attributes of its own in layout, all its values come from
+ * its style and theme, so config is cached by theme and style resource and views inflated
+ * with the same style skip TypedArray parsing. Cached config is read again when night mode
+ * has changed, and views take colors for new configuration with
+ * @see #withCurrentColors(Context)
+ * Cache is accessed from the main thread only.
+ */
+final class CellConfig {
+    static final int CELLS_NUMBER_DEFAULT = 8;
+
+    static final int CURSOR_BOX = 0;
+    static final int CURSOR_UNDERLINE = 1;
+
+    //configs by theme, then by style resource
+    private static final WeakHashMap<Resources.Theme, SparseArray<CellConfig>> cache =
+            new WeakHashMap<>();
+
+    //number of parsed TypedArrays, for tests
+    static int parses;
+
+    final int cellsNumber;
+    //0 shows all cells
+    final int visibleCellsNumber;
+    final float intervalPercentage;
+    final float textSizeRatio;
+    //dimensions in pixels, negative to use defaults in dp
+    final float strokeWidth;
+    final boolean pixelSnapping;
+
+    final int cellColor;
+    final int textColor;
+    final int cursorColor;
+    //resources of colors, 0 for colors given as values
+    private final int cellColorResource;
+    private final int textColorResource;
+    private final int cursorColorResource;
+    //ui mode of configuration colors are resolved for, night mode is a part of it
+    private final int uiMode;
+
+    final int cursorStyle;
+    final float cursorStrokeWidth;
+    final float cursorMargin;
+    final boolean cursorBlinking;
+
+    //pattern of groups as in layout, null for no groups
+    final String cellGroups;
+    final float cellGroupGap;
+    final boolean cellGroupDashes;
+
+    final String glyphAtlasSymbols;
+    final boolean textLayoutBypassed;
+
+    private CellConfig(Context context, TypedArray ta) {
+        int white = context.getResources().getColor(R.color.white);
+        cellsNumber = ta.getInt(R.styleable.LoginEditText_cellsNumber, CELLS_NUMBER_DEFAULT);
+        if(cellsNumber < 1) {
+            throw new IllegalArgumentException("cellsNumber must be at least 1, not " + cellsNumber);
+        }
+        visibleCellsNumber = ta.getInt(R.styleable.LoginEditText_visibleCellsNumber, 0);
+        intervalPercentage = ta.getFloat(R.styleable.LoginEditText_cellIntervalRatio,
+                CellGeometry.INTERVAL_PERCENTAGE);
+        textSizeRatio = ta.getFloat(R.styleable.LoginEditText_cellTextSizeRatio,
+                CellGeometry.TEXT_SIZE_RATIO);
+        strokeWidth = ta.getDimension(R.styleable.LoginEditText_cellStrokeWidth, -1.0f);
+        pixelSnapping = ta.getBoolean(R.styleable.LoginEditText_pixelSnapping, false);
+
+        cellColor = ta.getColor(R.styleable.LoginEditText_cellColor, white);
+        textColor = ta.getColor(R.styleable.LoginEditText_cellTextColor, white);
+        cursorColor = ta.getColor(R.styleable.LoginEditText_cursorColor, white);
+        cellColorResource = ta.getResourceId(R.styleable.LoginEditText_cellColor, R.color.white);
+        textColorResource = ta.getResourceId(R.styleable.LoginEditText_cellTextColor, R.color.white);
+        cursorColorResource = ta.getResourceId(R.styleable.LoginEditText_cursorColor, R.color.white);
+        uiMode = uiMode(context);
+
+        cursorStyle = ta.getInt(R.styleable.LoginEditText_cursorStyle, CURSOR_BOX);
+        cursorStrokeWidth = ta.getDimension(R.styleable.LoginEditText_cursorStrokeWidth, -1.0f);
+        cursorMargin = ta.getDimension(R.styleable.LoginEditText_cursorMargin, -1.0f);
+        cursorBlinking = ta.getBoolean(R.styleable.LoginEditText_cursorBlinking, false);
+
+        cellGroups = ta.getString(R.styleable.LoginEditText_cellGroups);
+        cellGroupGap = ta.getDimension(R.styleable.LoginEditText_cellGroupGap, -1.0f);
+        cellGroupDashes = ta.getBoolean(R.styleable.LoginEditText_cellGroupDashes, false);
+
+        glyphAtlasSymbols = ta.getString(R.styleable.LoginEditText_glyphAtlasSymbols);
+        textLayoutBypassed = ta.getBoolean(R.styleable.LoginEditText_textLayoutBypassed, false);
+    }
+
+    /**
+     * Config with the same attributes and colors for another configuration
+     */
+    private CellConfig(CellConfig config, int cellColor, int textColor, int cursorColor,
+                       int uiMode) {
+        cellsNumber = config.cellsNumber;
+        visibleCellsNumber = config.visibleCellsNumber;
+        intervalPercentage = config.intervalPercentage;
+        textSizeRatio = config.textSizeRatio;
+        strokeWidth = config.strokeWidth;
+        pixelSnapping = config.pixelSnapping;
+
+        this.cellColor = cellColor;
+        this.textColor = textColor;
+        this.cursorColor = cursorColor;
+        cellColorResource = config.cellColorResource;
+        textColorResource = config.textColorResource;
+        cursorColorResource = config.cursorColorResource;
+        this.uiMode = uiMode;
+
+        cursorStyle = config.cursorStyle;
+        cursorStrokeWidth = config.cursorStrokeWidth;
+        cursorMargin = config.cursorMargin;
+        cursorBlinking = config.cursorBlinking;
+
+        cellGroups = config.cellGroups;
+        cellGroupGap = config.cellGroupGap;
+        cellGroupDashes = config.cellGroupDashes;
+
+        glyphAtlasSymbols = config.glyphAtlasSymbols;
+        textLayoutBypassed = config.textLayoutBypassed;
+    }
+
+    /**
+     * Get config with colors resolved again from their resources, e.g. when night mode
+     * has changed and activity is not recreated. Colors given as values stay the same
+     * @param context context of view with new configuration
+     * @return this config if colors have not changed
+     */
+    CellConfig withCurrentColors(Context context) {
+        Resources resources = context.getResources();
+        int cell = color(resources, cellColorResource, cellColor);
+        int text = color(resources, textColorResource, textColor);
+        int cursor = color(resources, cursorColorResource, cursorColor);
+        if(cell == cellColor && text == textColor && cursor == cursorColor) {
+            return this;
+        }
+        return new CellConfig(this, cell, text, cursor, uiMode(context));
+    }
+
+    private static int color(Resources resources, int id, int value) {
+        return id == 0 ? value : resources.getColor(id);
+    }
+
+    private static int uiMode(Context context) {
+        return context.getResources().getConfiguration().uiMode;
+    }
+
+    /**
+     * Get config of view, it is read from attributes only if it is not cached yet
+     * @param context context of view, its theme is a part of cache key
+     * @param attrs attributes of view from layout or null
+     * @return config which must not be changed
+     * @throws IllegalArgumentException if cellsNumber is less than 1
+     */
+    static CellConfig obtain(Context context, AttributeSet attrs) {
+        if(attrs != null && hasOwnAttributes(attrs)) {
+            //values from layout differ from view to view
+            return read(context, attrs);
+        }
+        Resources.Theme theme = context.getTheme();
+        int style = attrs == null ? 0 : attrs.getStyleAttribute();
+        SparseArray<CellConfig> configs = cache.get(theme);
+        if(configs == null) {
+            configs = new SparseArray<>();
+            cache.put(theme, configs);
+        }
+        CellConfig config = configs.get(style);
+        if(config == null || config.uiMode != uiMode(context)) {
+            config = read(context, attrs);
+            configs.put(style, config);
+        }
+        return config;
+    }
+
+    private static CellConfig read(Context context, AttributeSet attrs) {
+        parses++;
+        TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.LoginEditText, 0, 0);
+        try {
+            return new CellConfig(context, ta);
+        } finally {
+            ta.recycle();
+        }
+    }
+
+    /**
+     * @return true if layout sets any of LoginEditText attributes on the view itself
+     */
+    private static boolean hasOwnAttributes(AttributeSet attrs) {
+        int[] styleable = R.styleable.LoginEditText;
+        for(int i = 0; i < attrs.getAttributeCount(); i++) {
+            int attr = attrs.getAttributeNameResource(i);
+            for(int id : styleable) {
+                if(id == attr) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
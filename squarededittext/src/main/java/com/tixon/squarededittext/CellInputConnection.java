@@ -0,0 +1,83 @@
+package com.tixon.squarededittext;
+
+import android.text.Editable;
+import android.view.KeyEvent;
+import android.view.inputmethod.BaseInputConnection;
+import android.view.inputmethod.ExtractedText;
+import android.view.inputmethod.ExtractedTextRequest;
+
+/**
+ * Connection between keyboard and
+ * @see LoginEditText
+ * Committed text, deleting and key events are mapped straight onto cell operations, so
+ * a keystroke doesn't go through Editable and TextWatcher before cells know about it,
+ * and all keyboards behave the same.
+ * Composing text is rare for codes, it is left to BaseInputConnection and reaches cells
+ * through TextWatcher.
+ */
+class CellInputConnection extends BaseInputConnection {
+    private final LoginEditText editText;
+
+    CellInputConnection(LoginEditText editText) {
+        super(editText, true);
+        this.editText = editText;
+    }
+
+    @Override
+    public Editable getEditable() {
+        return editText.getText();
+    }
+
+    /**
+     * Keyboards read text and selection from here, e.g. to restore their state after
+     * the view has rewritten Editable. Monitoring of extracted text is not supported,
+     * view tells keyboard about new selection itself
+     */
+    @Override
+    public ExtractedText getExtractedText(ExtractedTextRequest request, int flags) {
+        ExtractedText text = new ExtractedText();
+        return editText.extractText(request, text) ? text : null;
+    }
+
+    @Override
+    public boolean commitText(CharSequence text, int newCursorPosition) {
+        if(getComposingSpanStart(getEditable()) >= 0) {
+            return super.commitText(text, newCursorPosition);
+        }
+        editText.commitSymbols(text, 0, text.length());
+        return true;
+    }
+
+    @Override
+    public boolean deleteSurroundingText(int beforeLength, int afterLength) {
+        if(getComposingSpanStart(getEditable()) >= 0) {
+            return super.deleteSurroundingText(beforeLength, afterLength);
+        }
+        //cursor is always at the end, there is nothing after it
+        editText.deleteSymbols(beforeLength);
+        return true;
+    }
+
+    @Override
+    public boolean sendKeyEvent(KeyEvent event) {
+        int keyCode = event.getKeyCode();
+        if(keyCode == KeyEvent.KEYCODE_ENTER || keyCode == KeyEvent.KEYCODE_NUMPAD_ENTER) {
+            //do nothing
+            return true;
+        }
+        if(keyCode == KeyEvent.KEYCODE_DEL) {
+            if(event.getAction() == KeyEvent.ACTION_DOWN) {
+                editText.deleteSymbols(1);
+            }
+            return true;
+        }
+        int symbol = event.getUnicodeChar();
+        if(symbol != 0 && !Character.isSupplementaryCodePoint(symbol)) {
+            if(event.getAction() == KeyEvent.ACTION_DOWN) {
+                editText.commitSymbol((char) symbol);
+            }
+            return true;
+        }
+        return super.sendKeyEvent(event);
+    }
+}
@@ -0,0 +1,387 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+
+/**
+ * Draws squares, symbols and cursor of
+ * @see LoginEditText
+ * @see CodeInputView
+ * Renderer takes a shared style for size and attributes of its view and keeps only what
+ * belongs to the view: glyph atlas, cached squares and rects reused on each frame.
+ * onDraw of a view passes symbols, window and cursor, so drawing does no calculations
+ * and doesn't mutate paints.
+ */
+final class CellRenderer {
+    //indexes of dimensions in cache
+    private static final int STROKE_MARGIN = 0;
+    private static final int STROKE_WIDTH_SQUARE = 1;
+    private static final int STROKE_WIDTH_CURSOR = 2;
+    private static final int CELL_GROUP_GAP = 3;
+    private static final int SQUARE_WIDTH = 4;
+
+    /**
+     * Stroke and square dimensions in pixels, resolved when density or configuration changes
+     */
+    private final DimensionCache dimensions = new DimensionCache(
+            LoginEditText.STROKE_MARGIN_DP, LoginEditText.STROKE_WIDTH_SQUARE_DP,
+            LoginEditText.STROKE_WIDTH_CURSOR_DP, LoginEditText.CELL_GROUP_GAP_DP,
+            LoginEditText.SQUARE_WIDTH_DP);
+
+    /**
+     * Positions of cells, symbols and cursor, paints and advances of symbols,
+     * shared with other views of the same size and attributes
+     */
+    CellStyle style;
+
+    /**
+     * Symbols drawn from a bitmap shared by views of the same style, other symbols are
+     * drawn as text. Atlas is acquired on drawing and released when style changes
+     * or view is detached
+     */
+    private String glyphAtlasSymbols;
+    GlyphAtlas glyphAtlas;
+    //where slot of atlas is copied in each cell, placed when atlas is acquired for style
+    Rect[] glyphDst = new Rect[0];
+
+    private boolean outlinesBatched = true;
+
+    //created on the first measuring of wrap_content height
+    private CellGeometry measureGeometry;
+
+    //advances of symbols which style doesn't measure, created when such a symbol is drawn
+    private GlyphAdvanceCache otherAdvances;
+
+    private boolean backgroundCacheEnabled = false;
+    private boolean backgroundCacheValid = false;
+    private Bitmap backgroundCache;
+    //created only when cache is enabled
+    private Canvas backgroundCacheCanvas;
+    //number of times squares were rasterized, for tests
+    int backgroundCacheBuilds;
+
+    /**
+     * Take style for current size and attributes. Called only when width, number of cells
+     * or attributes change
+     * @param context context of view to resolve default dimensions
+     * @param config proportions, colors, strokes and cursor style
+     * @param width width of view in pixels
+     * @param cellsNumber number of laid out cells
+     * @param groups sizes of groups or null
+     * @param groupGap gap between groups in pixels, negative to use default
+     * @param dashes true to draw dashes between groups
+     * @param pixelSnapping true to snap squares and cursor to pixels
+     * @see CellStyle#obtain
+     */
+    void updateStyle(Context context, CellConfig config, int width, int cellsNumber, int[] groups,
+                     float groupGap, boolean dashes, boolean pixelSnapping) {
+        dimensions.update(context);
+        CellStyle newStyle = CellStyle.obtain(config, width, cellsNumber,
+                dimension(config.strokeWidth, STROKE_WIDTH_SQUARE),
+                dimension(config.cursorStrokeWidth, STROKE_WIDTH_CURSOR),
+                dimension(config.cursorMargin, STROKE_MARGIN),
+                groups, dimension(groupGap, CELL_GROUP_GAP), dashes, pixelSnapping);
+        if(newStyle != style) {
+            style = newStyle;
+            releaseGlyphAtlas();
+            backgroundCacheValid = false;
+        }
+    }
+
+    /**
+     * @param px dimension from attributes in pixels, negative if it is not set
+     * @param index index of default dimension in cache
+     * @return dimension in pixels
+     */
+    private float dimension(float px, int index) {
+        return px >= 0.0f ? px : dimensions.get(index);
+    }
+
+    /**
+     * Resolve default dimensions again on the next update and rasterize squares again
+     * on the next frame, density and colors may have changed with configuration
+     */
+    void invalidateConfiguration() {
+        dimensions.invalidate();
+        backgroundCacheValid = false;
+    }
+
+    /**
+     * @param symbols symbols to rasterize once, null to draw all symbols as text
+     * @return true if symbols have changed and view should be redrawn
+     */
+    boolean setGlyphAtlasSymbols(String symbols) {
+        if(symbols != null && symbols.isEmpty()) {
+            symbols = null;
+        }
+        if(symbols == null ? glyphAtlasSymbols == null : symbols.equals(glyphAtlasSymbols)) {
+            return false;
+        }
+        glyphAtlasSymbols = symbols;
+        releaseGlyphAtlas();
+        return true;
+    }
+
+    /**
+     * @param batched true to draw squares with one drawLines call, false to draw them one by one
+     * @return true if view should be redrawn
+     */
+    boolean setOutlinesBatched(boolean batched) {
+        if(outlinesBatched == batched) {
+            return false;
+        }
+        outlinesBatched = batched;
+        return true;
+    }
+
+    /**
+     * @param enabled true to draw squares from cached bitmap
+     * @return true if view should be redrawn
+     */
+    boolean setBackgroundCacheEnabled(boolean enabled) {
+        if(backgroundCacheEnabled == enabled) {
+            return false;
+        }
+        backgroundCacheEnabled = enabled;
+        if(!enabled) {
+            releaseBackgroundCache();
+        }
+        return true;
+    }
+
+    /**
+     * Give bitmaps back to pools, they are taken again on the next frame
+     */
+    void release() {
+        releaseBackgroundCache();
+        releaseGlyphAtlas();
+    }
+
+    private void releaseGlyphAtlas() {
+        GlyphAtlas.release(glyphAtlas);
+        glyphAtlas = null;
+    }
+
+    private void releaseBackgroundCache() {
+        BitmapPool.release(backgroundCache);
+        backgroundCache = null;
+        backgroundCacheValid = false;
+    }
+
+    /**
+     * Draw squares, symbols of visible cells and cursor
+     * @param canvas canvas of view
+     * @param width width of view
+     * @param height height of view
+     * @param text symbols of all cells
+     * @param window visible cells, the first visible cell is drawn in slot 0
+     * @param cursorCell cell with cursor, negative if cursor is not drawn
+     */
+    void draw(Canvas canvas, int width, int height, CellBuffer text, CellWindow window,
+              int cursorCell) {
+        drawSquares(canvas, width, height);
+        drawText(canvas, text, window);
+        int slot = window.slot(cursorCell);
+        if(cursorCell >= 0 && slot >= 0 && slot < window.visible()) {
+            drawCursor(canvas, slot);
+        }
+    }
+
+    private void drawSquares(Canvas canvas, int width, int height) {
+        if(backgroundCacheEnabled && width > 0 && height > 0) {
+            //style is kept when only height changes, but bitmap must match the view
+            if(!backgroundCacheValid || backgroundCache.getWidth() != width
+                    || backgroundCache.getHeight() != height) {
+                updateBackgroundCache(width, height);
+            }
+            canvas.drawBitmap(backgroundCache, 0, 0, null);
+            return;
+        }
+        drawOutlines(canvas);
+    }
+
+    /**
+     * Rasterize squares into bitmap of the view size
+     */
+    private void updateBackgroundCache(int width, int height) {
+        if(backgroundCache == null || backgroundCache.getWidth() != width
+                || backgroundCache.getHeight() != height) {
+            BitmapPool.release(backgroundCache);
+            backgroundCache = BitmapPool.acquire(width, height);
+        } else {
+            backgroundCache.eraseColor(Color.TRANSPARENT);
+        }
+        if(backgroundCacheCanvas == null) {
+            backgroundCacheCanvas = new Canvas();
+        }
+        backgroundCacheCanvas.setBitmap(backgroundCache);
+        drawOutlines(backgroundCacheCanvas);
+        backgroundCacheCanvas.setBitmap(null);
+        backgroundCacheValid = true;
+        backgroundCacheBuilds++;
+    }
+
+    private void drawOutlines(Canvas canvas) {
+        CellGeometry g = style.geometry;
+        if(outlinesBatched) {
+            canvas.drawLines(g.outlines, 0, g.outlinesLength, style.backgroundPaint);
+            return;
+        }
+        for(int i = 0; i < g.cellsNumber; i++) {
+            canvas.drawRect(g.left[i], g.top[i], g.right[i], g.bottom[i], style.backgroundPaint);
+        }
+        if(g.dashesNumber > 0) {
+            canvas.drawLines(g.outlines, g.cellsNumber * CellGeometry.OUTLINE_FLOATS,
+                    g.dashesNumber * CellGeometry.DASH_FLOATS, style.backgroundPaint);
+        }
+    }
+
+    private void drawText(Canvas canvas, CellBuffer text, CellWindow window) {
+        char[] symbols = text.array();
+        int first = window.first();
+        int end = Math.min(text.length(), first + window.visible());
+        CellGeometry g = style.geometry;
+        GlyphAtlas atlas = glyphAtlas();
+        for (int i = first; i < end; i++) {
+            int slot = i - first;
+            if(atlas != null) {
+                int index = atlas.indexOf(symbols[i]);
+                if(index >= 0) {
+                    drawGlyph(canvas, atlas, index, slot);
+                    continue;
+                }
+            }
+            float x = g.textCenterX[slot] - glyphAdvance(symbols, i) / 2.0f;
+            canvas.drawText(symbols, i, 1, x, g.textBaseline[slot], style.textPaint);
+        }
+    }
+
+    /**
+     * @return atlas of current style or null if symbols are drawn as text
+     */
+    private GlyphAtlas glyphAtlas() {
+        if(glyphAtlas == null && glyphAtlasSymbols != null && style.geometry.textSize > 0.0f) {
+            glyphAtlas = GlyphAtlas.acquire(glyphAtlasSymbols, style.textPaint);
+            placeGlyphs(glyphAtlas);
+        }
+        return glyphAtlas;
+    }
+
+    /**
+     * Center slot of atlas in each cell on whole pixels, so symbols are not filtered.
+     * Size of slots depends on symbols of atlas, so they are placed once per style and atlas
+     */
+    private void placeGlyphs(GlyphAtlas atlas) {
+        CellGeometry g = style.geometry;
+        if(glyphDst.length < g.cellsNumber) {
+            Rect[] rects = new Rect[g.cellsNumber];
+            System.arraycopy(glyphDst, 0, rects, 0, glyphDst.length);
+            for(int i = glyphDst.length; i < rects.length; i++) {
+                rects[i] = new Rect();
+            }
+            glyphDst = rects;
+        }
+        for(int i = 0; i < g.cellsNumber; i++) {
+            int left = Math.round(g.textCenterX[i] - atlas.slotWidth / 2.0f);
+            int top = Math.round(g.textBaseline[i]) - atlas.baseline;
+            glyphDst[i].set(left, top, left + atlas.slotWidth, top + atlas.slotHeight);
+        }
+    }
+
+    /**
+     * Copy symbol from its slot of atlas into cell
+     */
+    private void drawGlyph(Canvas canvas, GlyphAtlas atlas, int index, int slot) {
+        canvas.drawBitmap(atlas.bitmap, atlas.slots[index], glyphDst[slot], null);
+    }
+
+    /**
+     * Get advance of symbol measured by style, or by this view if style doesn't have it
+     * @param symbols array of symbols
+     * @param index index of symbol in array
+     * @return advance of symbol in pixels
+     */
+    private float glyphAdvance(char[] symbols, int index) {
+        char c = symbols[index];
+        float advance = style.glyphAdvances.get(c);
+        if(!Float.isNaN(advance)) {
+            return advance;
+        }
+        if(otherAdvances == null) {
+            otherAdvances = new GlyphAdvanceCache();
+        }
+        //cleared when view takes style of another text size or typeface
+        otherAdvances.setStyle(style.geometry.textSize, style.textPaint.getTypeface());
+        advance = otherAdvances.get(c);
+        if(Float.isNaN(advance)) {
+            advance = style.textPaint.measureText(symbols, index, 1);
+            otherAdvances.put(c, advance);
+        }
+        return advance;
+    }
+
+    private void drawCursor(Canvas canvas, int slot) {
+        CellGeometry g = style.geometry;
+        canvas.drawRect(g.cursorLeft[slot], g.cursorTop, g.cursorRight[slot], g.cursorBottom, style.cursorPaint);
+    }
+
+    /**
+     * Get rect covering visible cells from first to last including their strokes
+     * @param first slot of first cell
+     * @param last slot of last cell
+     * @param out rect to store result
+     */
+    void getCellsRect(int first, int last, Rect out) {
+        CellGeometry g = style.geometry;
+        float stroke = style.backgroundPaint.getStrokeWidth();
+        out.set((int) Math.floor(g.left[first] - stroke), (int) Math.floor(g.top[first] - stroke),
+                (int) Math.ceil(g.right[last] + stroke), (int) Math.ceil(g.bottom[last] + stroke));
+    }
+
+    /**
+     * Get height which fits squares of given width with their strokes. Squares are laid out
+     * in a geometry kept for measuring, the style of view stays until view gets its size
+     * @return height in pixels
+     * @see #updateStyle
+     */
+    int measureCellsHeight(Context context, CellConfig config, int width, int cellsNumber,
+                           int[] groups, float groupGap, boolean pixelSnapping) {
+        if(cellsNumber == 0) {
+            return 0;
+        }
+        dimensions.update(context);
+        float strokeWidth = dimension(config.strokeWidth, STROKE_WIDTH_SQUARE);
+        if(measureGeometry == null) {
+            measureGeometry = new CellGeometry();
+        }
+        CellGeometry g = measureGeometry;
+        g.setPixelSnapping(pixelSnapping);
+        g.setProportions(config.intervalPercentage, config.textSizeRatio);
+        g.update(width, cellsNumber, strokeWidth, dimension(config.cursorMargin, STROKE_MARGIN),
+                groups, dimension(groupGap, CELL_GROUP_GAP), false);
+        return (int) Math.ceil(g.bottom[0] + strokeWidth);
+    }
+
+    /**
+     * Get width in which squares have the width from design, for views measured by content
+     * @return width in pixels
+     * @see #measureCellsHeight
+     */
+    int measureCellsWidth(Context context, CellConfig config, int cellsNumber,
+                          int[] groups, float groupGap) {
+        if(cellsNumber == 0) {
+            return 0;
+        }
+        dimensions.update(context);
+        if(measureGeometry == null) {
+            measureGeometry = new CellGeometry();
+        }
+        CellGeometry g = measureGeometry;
+        g.setProportions(config.intervalPercentage, config.textSizeRatio);
+        return (int) Math.ceil(g.widthFor(dimensions.get(SQUARE_WIDTH), cellsNumber, groups,
+                dimension(groupGap, CELL_GROUP_GAP)));
+    }
+}
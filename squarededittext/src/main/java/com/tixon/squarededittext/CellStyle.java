@@ -0,0 +1,187 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Paint;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Geometry, paints and advances of symbols shared by all
+ * @see LoginEditText
+ * with the same size, number of cells and attributes.
+ * Style is not changed once built: when size or attributes of a view change,
+ * the view takes another style from {@link #obtain}, so a screen or a list with many code
+ * fields keeps one set of paints and coordinates instead of one per view.
+ * Advances of printable ASCII symbols are measured when style is built, views measure
+ * other symbols on their own.
+ * The most recently used styles are cached, views keep their style even if it leaves cache.
+ * Cache is accessed from the main thread only.
+ */
+final class CellStyle {
+    private static final int MAX_CACHE_SIZE = 16;
+    //range of symbols measured when style is built
+    private static final char FIRST_MEASURED = ' ';
+    private static final char LAST_MEASURED = '~';
+
+    private static final Map<CellStyle, CellStyle> cache =
+            new LinkedHashMap<CellStyle, CellStyle>(MAX_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CellStyle, CellStyle> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            };
+
+    //key
+    private final int width;
+    private final int cellsNumber;
+    private final float strokeWidth;
+    private final float cursorStrokeWidth;
+    private final float strokeMargin;
+    private final int[] groups;
+    private final float groupGap;
+    private final boolean dashes;
+    private final boolean pixelSnapping;
+    private final float intervalPercentage;
+    private final float textSizeRatio;
+    private final int cellColor;
+    private final int textColor;
+    private final int cursorColor;
+    private final int cursorStyle;
+
+    //built only for styles which get into cache, not changed after that
+    CellGeometry geometry;
+    Paint backgroundPaint;
+    Paint textPaint;
+    Paint cursorPaint;
+    GlyphAdvanceCache glyphAdvances;
+
+    private CellStyle(CellConfig config, int width, int cellsNumber, float strokeWidth,
+                      float cursorStrokeWidth, float strokeMargin, int[] groups, float groupGap,
+                      boolean dashes, boolean pixelSnapping) {
+        this.width = width;
+        this.cellsNumber = cellsNumber;
+        this.strokeWidth = strokeWidth;
+        this.cursorStrokeWidth = cursorStrokeWidth;
+        this.strokeMargin = strokeMargin;
+        this.groups = groups;
+        this.groupGap = groupGap;
+        this.dashes = dashes;
+        this.pixelSnapping = pixelSnapping;
+        this.intervalPercentage = config.intervalPercentage;
+        this.textSizeRatio = config.textSizeRatio;
+        this.cellColor = config.cellColor;
+        this.textColor = config.textColor;
+        this.cursorColor = config.cursorColor;
+        this.cursorStyle = config.cursorStyle;
+    }
+
+    /**
+     * Get shared style, it is built only if no view has it in cache
+     * @param config proportions, colors and cursor style
+     * @param width width of view in pixels
+     * @param cellsNumber number of laid out cells
+     * @param strokeWidth width of square stroke in pixels
+     * @param cursorStrokeWidth width of cursor stroke in pixels
+     * @param strokeMargin margin of cursor inside of square in pixels
+     * @param groups sizes of groups or null, the array must not be changed later
+     * @param groupGap additional gap between groups in pixels
+     * @param dashes true to draw dashes between groups
+     * @param pixelSnapping true to snap squares and cursor to pixels and draw them without anti-aliasing
+     * @return style which must not be changed
+     */
+    static CellStyle obtain(CellConfig config, int width, int cellsNumber, float strokeWidth,
+                            float cursorStrokeWidth, float strokeMargin, int[] groups,
+                            float groupGap, boolean dashes, boolean pixelSnapping) {
+        CellStyle key = new CellStyle(config, width, cellsNumber, strokeWidth, cursorStrokeWidth,
+                strokeMargin, groups, groupGap, dashes, pixelSnapping);
+        CellStyle style = cache.get(key);
+        if(style == null) {
+            style = key;
+            style.build();
+            cache.put(style, style);
+        }
+        return style;
+    }
+
+    private void build() {
+        geometry = new CellGeometry();
+        geometry.setPixelSnapping(pixelSnapping);
+        geometry.setProportions(intervalPercentage, textSizeRatio);
+        geometry.setCursorUnderline(cursorStyle == CellConfig.CURSOR_UNDERLINE);
+        geometry.update(width, cellsNumber, strokeWidth, strokeMargin, groups, groupGap, dashes);
+
+        backgroundPaint = new Paint();
+        backgroundPaint.setStyle(Paint.Style.STROKE);
+        //square caps make corners of lines look the same as corners of rects
+        backgroundPaint.setStrokeCap(Paint.Cap.SQUARE);
+        backgroundPaint.setColor(cellColor);
+        backgroundPaint.setAntiAlias(!pixelSnapping);
+        backgroundPaint.setStrokeWidth(strokeWidth);
+
+        textPaint = new Paint();
+        textPaint.setColor(textColor);
+        textPaint.setAntiAlias(true);
+        textPaint.setTextSize(geometry.textSize);
+
+        cursorPaint = new Paint();
+        cursorPaint.setStyle(Paint.Style.STROKE);
+        cursorPaint.setColor(cursorColor);
+        cursorPaint.setAntiAlias(!pixelSnapping);
+        cursorPaint.setStrokeWidth(cursorStrokeWidth);
+
+        glyphAdvances = new GlyphAdvanceCache();
+        glyphAdvances.setStyle(geometry.textSize, textPaint.getTypeface());
+        char[] symbols = new char[LAST_MEASURED - FIRST_MEASURED + 1];
+        for(int i = 0; i < symbols.length; i++) {
+            symbols[i] = (char) (FIRST_MEASURED + i);
+            glyphAdvances.put(symbols[i], textPaint.measureText(symbols, i, 1));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof CellStyle)) {
+            return false;
+        }
+        CellStyle style = (CellStyle) o;
+        return width == style.width
+                && cellsNumber == style.cellsNumber
+                && Float.compare(strokeWidth, style.strokeWidth) == 0
+                && Float.compare(cursorStrokeWidth, style.cursorStrokeWidth) == 0
+                && Float.compare(strokeMargin, style.strokeMargin) == 0
+                && Arrays.equals(groups, style.groups)
+                && Float.compare(groupGap, style.groupGap) == 0
+                && dashes == style.dashes
+                && pixelSnapping == style.pixelSnapping
+                && Float.compare(intervalPercentage, style.intervalPercentage) == 0
+                && Float.compare(textSizeRatio, style.textSizeRatio) == 0
+                && cellColor == style.cellColor
+                && textColor == style.textColor
+                && cursorColor == style.cursorColor
+                && cursorStyle == style.cursorStyle;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = width;
+        result = 31 * result + cellsNumber;
+        result = 31 * result + Float.floatToIntBits(strokeWidth);
+        result = 31 * result + Float.floatToIntBits(cursorStrokeWidth);
+        result = 31 * result + Float.floatToIntBits(strokeMargin);
+        result = 31 * result + Arrays.hashCode(groups);
+        result = 31 * result + Float.floatToIntBits(groupGap);
+        result = 31 * result + (dashes ? 1 : 0);
+        result = 31 * result + (pixelSnapping ? 1 : 0);
+        result = 31 * result + Float.floatToIntBits(intervalPercentage);
+        result = 31 * result + Float.floatToIntBits(textSizeRatio);
+        result = 31 * result + cellColor;
+        result = 31 * result + textColor;
+        result = 31 * result + cursorColor;
+        result = 31 * result + cursorStyle;
+        return result;
+    }
+}
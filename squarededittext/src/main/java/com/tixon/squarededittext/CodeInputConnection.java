@@ -0,0 +1,56 @@
+package com.tixon.squarededittext;
+
+import android.view.KeyEvent;
+import android.view.inputmethod.BaseInputConnection;
+
+/**
+ * Connection between keyboard and
+ * @see CodeInputView
+ * View has no Editable, so connection is not a full editor: committed text, deleting
+ * and key events go straight into cells. Composing text is kept by BaseInputConnection
+ * and reaches cells as key events when it is finished.
+ * Keyboard sees symbols of cells before cursor, there is nothing after it.
+ */
+class CodeInputConnection extends BaseInputConnection {
+    private final CodeInputView view;
+
+    CodeInputConnection(CodeInputView view) {
+        super(view, false);
+        this.view = view;
+    }
+
+    @Override
+    public boolean commitText(CharSequence text, int newCursorPosition) {
+        if(getComposingSpanStart(getEditable()) >= 0) {
+            return super.commitText(text, newCursorPosition);
+        }
+        view.commitSymbols(text, 0, text.length());
+        return true;
+    }
+
+    @Override
+    public boolean deleteSurroundingText(int beforeLength, int afterLength) {
+        if(getComposingSpanStart(getEditable()) >= 0) {
+            return super.deleteSurroundingText(beforeLength, afterLength);
+        }
+        view.deleteSymbols(beforeLength);
+        return true;
+    }
+
+    @Override
+    public boolean sendKeyEvent(KeyEvent event) {
+        return view.handleKeyEvent(event) || super.sendKeyEvent(event);
+    }
+
+    @Override
+    public CharSequence getTextBeforeCursor(int length, int flags) {
+        CellBuffer text = view.input.text();
+        int end = text.length();
+        return text.subSequence(Math.max(0, end - length), end).toString();
+    }
+
+    @Override
+    public CharSequence getTextAfterCursor(int length, int flags) {
+        return "";
+    }
+}
@@ -0,0 +1,542 @@
+package com.tixon.squarededittext;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.text.InputType;
+import android.util.AttributeSet;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.autofill.AutofillValue;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+import android.view.inputmethod.InputMethodManager;
+
+/**
+ * Lightweight sibling of
+ * @see LoginEditText
+ * which is a plain View instead of EditText. There is no Editable, Layout, selection,
+ * action mode or TextWatcher: keyboard talks to the view through
+ * @see CodeInputConnection
+ * and every keystroke goes straight into the char buffer of cells, then only changed
+ * cells are redrawn. Squares, symbols and cursor are drawn by the same renderer
+ * with the same styles as LoginEditText.
+ *
+ * View reads the same custom attributes as LoginEditText, e.g. cellsNumber, cellGroups or
+ * style LoginEditText.OneTimeCode. cursorBlinking and textLayoutBypassed are not supported,
+ * cursor is always shown. Activation of filled cells is not supported either,
+ * typing into full cells does nothing until a symbol is deleted.
+ *
+ * View should be match_parent or have exact width, its height fits squares
+ * when it is wrap_content.
+ */
+public class CodeInputView extends View {
+    private static final int CELLS_NUMBER_DEFAULT = CellConfig.CELLS_NUMBER_DEFAULT;
+    private static final int[] INPUT_TYPE_ATTRS = {android.R.attr.inputType};
+
+    private TypingFinishedListener typingFinishedListener;
+
+    public void setTypingFinishedListener(TypingFinishedListener listener) {
+        this.typingFinishedListener = listener;
+    }
+
+    private CellConfig config;
+    private int cellsNumber = CELLS_NUMBER_DEFAULT;
+    private int visibleCellsNumber = 0;
+    private int[] cellGroups;
+    //gap in pixels, negative to use CELL_GROUP_GAP_DP
+    private float cellGroupGap = -1.0f;
+    private boolean cellGroupDashes = false;
+    private boolean pixelSnapping = false;
+
+    private int inputType = InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_NO_SUGGESTIONS;
+
+    final CellRenderer renderer = new CellRenderer();
+    final CellWindow window = new CellWindow(CELLS_NUMBER_DEFAULT);
+
+    /**
+     * Symbols shown in cells and typing/deleting logic, capacity of buffers is number of cells
+     */
+    final CellInputStateMachine input = new CellInputStateMachine(CELLS_NUMBER_DEFAULT);
+    private CellBuffer previousText = new CellBuffer(CELLS_NUMBER_DEFAULT);
+    private int previousCursorCell;
+
+    /**
+     * The last rect invalidated after changing text or cursor
+     */
+    final Rect dirtyRect = new Rect();
+    private final int[] changedSlots = new int[2];
+
+    public CodeInputView(Context context) {
+        super(context);
+        readAttrs(context, null);
+        init();
+    }
+
+    public CodeInputView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        readAttrs(context, attrs);
+        init();
+    }
+
+    public CodeInputView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        readAttrs(context, attrs);
+        init();
+    }
+
+    /**
+     * Read custom attributes of LoginEditText and android:inputType
+     * @see CellConfig
+     */
+    private void readAttrs(Context context, AttributeSet attrs) {
+        config = CellConfig.obtain(context, attrs);
+        cellsNumber = config.cellsNumber;
+        visibleCellsNumber = config.visibleCellsNumber;
+        cellGroups = checkCellGroups(config.cellGroups);
+        cellGroupGap = config.cellGroupGap;
+        cellGroupDashes = config.cellGroupDashes;
+        pixelSnapping = config.pixelSnapping;
+        renderer.setGlyphAtlasSymbols(config.glyphAtlasSymbols);
+        resizeBuffers();
+
+        TypedArray ta = context.obtainStyledAttributes(attrs, INPUT_TYPE_ATTRS, 0, 0);
+        try {
+            setInputType(ta.getInt(0, inputType));
+        } finally {
+            ta.recycle();
+        }
+    }
+
+    private void init() {
+        setFocusable(true);
+        setFocusableInTouchMode(true);
+        enableAutofill();
+        updateGeometry();
+    }
+
+    private void resizeBuffers() {
+        if(previousText.capacity() != cellsNumber) {
+            input.resize(cellsNumber);
+            previousText = new CellBuffer(cellsNumber);
+        }
+        window.resize(cellsNumber, visibleCellsNumber);
+        window.scrollTo(input.cursorCell());
+    }
+
+    /**
+     * Set number of cells programmatically, symbols which don't fit are dropped
+     * @param number number of cells
+     */
+    @SuppressWarnings("unused")
+    public void setCellsNumber(int number) {
+        if(number > 0 && number != cellsNumber) {
+            this.cellsNumber = number;
+            if(cellGroups != null && CellGroups.cellsNumber(cellGroups) != number) {
+                cellGroups = null;
+            }
+            resizeBuffers();
+            updateGeometry();
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * Set number of cells shown at once, the rest are scrolled to with cursor
+     * @param number number of visible cells, 0 to show all cells
+     */
+    @SuppressWarnings("unused")
+    public void setVisibleCellsNumber(int number) {
+        if(number >= 0 && number != visibleCellsNumber) {
+            this.visibleCellsNumber = number;
+            resizeBuffers();
+            updateGeometry();
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * Split cells into groups, e.g. "3-3" for 6 cells
+     * @param pattern sizes of groups separated by non-digit symbols, null for no groups
+     * @throws IllegalArgumentException if groups don't sum to number of cells
+     */
+    @SuppressWarnings("unused")
+    public void setCellGroups(String pattern) {
+        cellGroups = checkCellGroups(pattern);
+        updateGeometry();
+        invalidate();
+    }
+
+    private int[] checkCellGroups(String pattern) {
+        int[] groups = CellGroups.parse(pattern);
+        if(groups != null && CellGroups.cellsNumber(groups) != cellsNumber) {
+            throw new IllegalArgumentException("Groups " + pattern + " don't match "
+                    + cellsNumber + " cells");
+        }
+        return groups;
+    }
+
+    /**
+     * Draw symbols from a pre-rendered bitmap instead of drawing text
+     * @param symbols symbols to rasterize once, null or empty to draw all symbols as text
+     * @see LoginEditText#setGlyphAtlasSymbols(String)
+     */
+    @SuppressWarnings("unused")
+    public void setGlyphAtlasSymbols(String symbols) {
+        if(renderer.setGlyphAtlasSymbols(symbols)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Set type of keyboard, e.g. InputType.TYPE_CLASS_NUMBER for numeric codes,
+     * letters are not placed into cells then. Text without suggestions by default
+     * @param type input type as in EditorInfo
+     */
+    @SuppressWarnings("unused")
+    public void setInputType(int type) {
+        if(this.inputType != type) {
+            this.inputType = type;
+            input.setDigitsOnly(Utils.isNumericInputType(type));
+            InputMethodManager imm = inputMethodManager();
+            if(imm != null) {
+                imm.restartInput(this);
+            }
+        }
+    }
+
+    public int getInputType() {
+        return inputType;
+    }
+
+    /**
+     * @return symbols of cells
+     */
+    public CharSequence getCode() {
+        return input.text().toString();
+    }
+
+    /**
+     * Replace symbols in cells with a whole code, e.g. received by SMS or pasted.
+     * Empty code clears cells
+     * @param code code to place into cells
+     * @see LoginEditText#setCode(CharSequence)
+     */
+    public void setCode(CharSequence code) {
+        beginCellsChange();
+        input.clear();
+        endCellsChange(input.fill(code, 0, code.length()));
+    }
+
+    /**
+     * Delete all symbols
+     */
+    @SuppressWarnings("unused")
+    public void clearCode() {
+        beginCellsChange();
+        input.clear();
+        endCellsChange(false);
+    }
+
+    /**
+     * Take style with geometry and paints for current size and attributes
+     */
+    private void updateGeometry() {
+        //scrolled cells are not grouped, groups would move with scrolling
+        int[] groups = window.isScrolling() ? null : cellGroups;
+        renderer.updateStyle(getContext(), config, getWidth(), window.visible(),
+                groups, cellGroupGap, cellGroupDashes, pixelSnapping);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        //squares are as high as they are wide, style is taken when size changes
+        int[] groups = window.isScrolling() ? null : cellGroups;
+        int height = renderer.measureCellsHeight(getContext(), config, width, window.visible(),
+                groups, cellGroupGap, pixelSnapping);
+        height = Math.max(height, getSuggestedMinimumHeight());
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateGeometry();
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        //density and colors may depend on configuration
+        config = config.withCurrentColors(getContext());
+        renderer.invalidateConfiguration();
+        updateGeometry();
+        invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        renderer.release();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        renderer.draw(canvas, getWidth(), getHeight(), input.text(), window, input.cursorCell());
+    }
+
+    // Input
+
+    @Override
+    public boolean onCheckIsTextEditor() {
+        return true;
+    }
+
+    @Override
+    public InputConnection onCreateInputConnection(EditorInfo outAttrs) {
+        outAttrs.inputType = inputType;
+        //there is no text for extracted fullscreen editor to show
+        outAttrs.imeOptions = EditorInfo.IME_ACTION_NONE | EditorInfo.IME_FLAG_NO_EXTRACT_UI
+                | EditorInfo.IME_FLAG_NO_FULLSCREEN;
+        outAttrs.initialSelStart = input.text().length();
+        outAttrs.initialSelEnd = outAttrs.initialSelStart;
+        return new CodeInputConnection(this);
+    }
+
+    /**
+     * A tap focuses view and shows keyboard
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if(!isEnabled()) {
+            return false;
+        }
+        if(event.getActionMasked() == MotionEvent.ACTION_UP) {
+            requestFocus();
+            InputMethodManager imm = inputMethodManager();
+            if(imm != null) {
+                imm.showSoftInput(this, 0);
+            }
+            performClick();
+        }
+        return true;
+    }
+
+    private InputMethodManager inputMethodManager() {
+        return (InputMethodManager) getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
+    }
+
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        return handleKeyEvent(event) || super.onKeyDown(keyCode, event);
+    }
+
+    @Override
+    public boolean onKeyUp(int keyCode, KeyEvent event) {
+        return handleKeyEvent(event) || super.onKeyUp(keyCode, event);
+    }
+
+    @Override
+    public boolean onKeyMultiple(int keyCode, int repeatCount, KeyEvent event) {
+        return handleKeyEvent(event) || super.onKeyMultiple(keyCode, repeatCount, event);
+    }
+
+    /**
+     * Map key event from hardware keyboard or input method onto cells: symbols are typed
+     * on key down, delete deletes the last symbol, enter does nothing
+     * @return true if event is consumed
+     */
+    boolean handleKeyEvent(KeyEvent event) {
+        int keyCode = event.getKeyCode();
+        int action = event.getAction();
+        if(keyCode == KeyEvent.KEYCODE_ENTER || keyCode == KeyEvent.KEYCODE_NUMPAD_ENTER) {
+            //do nothing
+            return true;
+        }
+        if(keyCode == KeyEvent.KEYCODE_DEL) {
+            if(action == KeyEvent.ACTION_DOWN) {
+                deleteSymbols(1);
+            }
+            return true;
+        }
+        if(action == KeyEvent.ACTION_MULTIPLE && keyCode == KeyEvent.KEYCODE_UNKNOWN) {
+            //text sent by input method as one event
+            String characters = event.getCharacters();
+            if(characters != null) {
+                commitSymbols(characters, 0, characters.length());
+                return true;
+            }
+            return false;
+        }
+        int symbol = event.getUnicodeChar();
+        if(symbol != 0 && !Character.isSupplementaryCodePoint(symbol)
+                && !Character.isISOControl(symbol)) {
+            if(action == KeyEvent.ACTION_DOWN) {
+                commitSymbol((char) symbol);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Type symbols committed by keyboard as one change of cells
+     */
+    void commitSymbols(CharSequence symbols, int start, int end) {
+        beginCellsChange();
+        endCellsChange(input.typeAll(symbols, start, end));
+    }
+
+    void commitSymbol(char symbol) {
+        beginCellsChange();
+        endCellsChange(input.type(symbol));
+    }
+
+    /**
+     * @param count number of deleted symbols
+     */
+    void deleteSymbols(int count) {
+        beginCellsChange();
+        for(int i = 0; i < count; i++) {
+            input.delete();
+        }
+        endCellsChange(false);
+    }
+
+    /**
+     * Remember cells before change to invalidate only changed ones after it
+     */
+    private void beginCellsChange() {
+        previousText.set(input.text());
+        previousCursorCell = input.cursorCell();
+    }
+
+    /**
+     * Redraw changed cells and notify about finished typing
+     * @param typingFinished true if change has filled all the cells
+     */
+    private void endCellsChange(boolean typingFinished) {
+        if(window.changedSlots(previousText, previousCursorCell, input.text(),
+                input.cursorCell(), changedSlots)) {
+            renderer.getCellsRect(changedSlots[0], changedSlots[1], dirtyRect);
+            invalidate(dirtyRect);
+        }
+        if(typingFinished && typingFinishedListener != null) {
+            typingFinishedListener.onTypingFinished();
+        }
+    }
+
+    //saved state
+
+    /**
+     * Symbols and state of cells are saved, as TextView saves its text
+     */
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.code = input.text().toString();
+        state.inputState = input.state().name();
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if(!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState saved = (SavedState) state;
+        super.onRestoreInstanceState(saved.getSuperState());
+        input.restore(saved.code, CellInputStateMachine.State.valueOf(saved.inputState));
+        window.scrollTo(input.cursorCell());
+        invalidate();
+        //keyboard may keep text of connection created before restoring
+        InputMethodManager imm = inputMethodManager();
+        if(imm != null) {
+            imm.restartInput(this);
+        }
+    }
+
+    public static class SavedState extends BaseSavedState {
+        String code;
+        String inputState;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            code = in.readString();
+            inputState = in.readString();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeString(code);
+            out.writeString(inputState);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR =
+                new Parcelable.Creator<SavedState>() {
+                    @Override
+                    public SavedState createFromParcel(Parcel in) {
+                        return new SavedState(in);
+                    }
+
+                    @Override
+                    public SavedState[] newArray(int size) {
+                        return new SavedState[size];
+                    }
+                };
+    }
+
+    //autofill
+
+    /**
+     * Let Autofill fill the whole code, importance and hint set in layout
+     * (android:importantForAutofill, android:autofillHints) are kept
+     */
+    private void enableAutofill() {
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            if(getImportantForAutofill() == IMPORTANT_FOR_AUTOFILL_AUTO) {
+                setImportantForAutofill(IMPORTANT_FOR_AUTOFILL_YES);
+            }
+            if(getAutofillHints() == null) {
+                setAutofillHints(LoginEditText.AUTOFILL_HINT_SMS_OTP);
+            }
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    @Override
+    public int getAutofillType() {
+        return AUTOFILL_TYPE_TEXT;
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    @Override
+    public AutofillValue getAutofillValue() {
+        return AutofillValue.forText(input.text().toString());
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    @Override
+    public void autofill(AutofillValue value) {
+        if(value == null || !value.isText()) {
+            return;
+        }
+        setCode(value.getTextValue());
+    }
+}
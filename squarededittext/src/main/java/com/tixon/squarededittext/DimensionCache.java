@@ -0,0 +1,51 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+
+/**
+ * Dimensions in dp resolved to pixels once. Values are resolved again only after
+ * @see #invalidate()
+ * or when display density changes.
+ */
+class DimensionCache {
+    private final float[] dp;
+    private final float[] px;
+    private float resolvedXdpi = -1.0f;
+
+    /**
+     * @param dp dimensions in dp, index of dimension is used to get its value in pixels
+     */
+    DimensionCache(float... dp) {
+        this.dp = dp;
+        this.px = new float[dp.length];
+    }
+
+    /**
+     * Resolve dimensions to pixels if they have not been resolved for current density yet
+     * @return true if values have changed
+     */
+    boolean update(Context context) {
+        float xdpi = context.getResources().getDisplayMetrics().xdpi;
+        if(xdpi == resolvedXdpi) {
+            return false;
+        }
+        Utils.dpToPx(dp, px, context);
+        resolvedXdpi = xdpi;
+        return true;
+    }
+
+    /**
+     * Forget resolved values, for example when configuration has changed
+     */
+    void invalidate() {
+        resolvedXdpi = -1.0f;
+    }
+
+    /**
+     * @param index index of dimension passed to constructor
+     * @return dimension in pixels
+     */
+    float get(int index) {
+        return px[index];
+    }
+}
@@ -0,0 +1,149 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+
+import java.util.ArrayList;
+
+/**
+ * Bitmap with a fixed set of symbols rasterized once, so drawing a symbol of
+ * @see LoginEditText
+ * is a copy of a part of the bitmap instead of shaping and rasterizing text.
+ * All symbols take slots of the same size in one row, a symbol is centered in its slot.
+ *
+ * Atlases are shared by views with the same symbols, text size, typeface and color.
+ * Each view acquires an atlas and releases it when its style changes or it is detached,
+ * atlases nobody uses are kept for a while and the oldest of them is recycled.
+ * Cache is accessed from the main thread only.
+ */
+class GlyphAtlas {
+    private static final int MAX_UNUSED_ATLASES = 4;
+    //padding around each symbol, so filtering doesn't take pixels of neighbours
+    private static final int PADDING = 1;
+
+    private static final ArrayList<GlyphAtlas> atlases = new ArrayList<>();
+
+    //key
+    final String symbols;
+    final float textSize;
+    final Typeface typeface;
+    final int color;
+
+    final Bitmap bitmap;
+    final int slotWidth;
+    final int slotHeight;
+    //distance from top of slot to baseline
+    final int baseline;
+    //slot of each symbol in bitmap
+    final Rect[] slots;
+
+    private int references;
+    //time of the last release, to find the oldest unused atlas
+    private long releasedAt;
+    private static long releases;
+
+    private GlyphAtlas(String symbols, Paint textPaint) {
+        this.symbols = symbols;
+        this.textSize = textPaint.getTextSize();
+        this.typeface = textPaint.getTypeface();
+        this.color = textPaint.getColor();
+
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        float maxAdvance = 0.0f;
+        for(int i = 0; i < symbols.length(); i++) {
+            maxAdvance = Math.max(maxAdvance, textPaint.measureText(symbols, i, i + 1));
+        }
+        slotWidth = (int) Math.ceil(maxAdvance) + 2 * PADDING;
+        slotHeight = (int) Math.ceil(metrics.descent - metrics.ascent) + 2 * PADDING;
+        baseline = PADDING + (int) Math.ceil(-metrics.ascent);
+        slots = new Rect[symbols.length()];
+        for(int i = 0; i < slots.length; i++) {
+            slots[i] = new Rect(i * slotWidth, 0, (i + 1) * slotWidth, slotHeight);
+        }
+
+        bitmap = Bitmap.createBitmap(Math.max(slotWidth * symbols.length(), 1),
+                Math.max(slotHeight, 1), Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        for(int i = 0; i < symbols.length(); i++) {
+            float advance = textPaint.measureText(symbols, i, i + 1);
+            float x = i * slotWidth + (slotWidth - advance) / 2.0f;
+            canvas.drawText(symbols, i, i + 1, x, baseline, textPaint);
+        }
+    }
+
+    /**
+     * Get atlas with symbols drawn with text size, typeface and color of paint,
+     * it is rasterized only if nobody has it yet
+     * @param symbols symbols of atlas
+     * @param textPaint paint to draw symbols with
+     * @return atlas which must be released with {@link #release(GlyphAtlas)}
+     */
+    static GlyphAtlas acquire(String symbols, Paint textPaint) {
+        for(int i = 0; i < atlases.size(); i++) {
+            GlyphAtlas atlas = atlases.get(i);
+            if(atlas.matches(symbols, textPaint)) {
+                atlas.references++;
+                return atlas;
+            }
+        }
+        GlyphAtlas atlas = new GlyphAtlas(symbols, textPaint);
+        atlas.references = 1;
+        atlases.add(atlas);
+        return atlas;
+    }
+
+    /**
+     * Stop using atlas. The oldest unused atlas is recycled when there are too many of them
+     * @param atlas atlas to release, may be null
+     */
+    static void release(GlyphAtlas atlas) {
+        if(atlas == null || atlas.references == 0) {
+            return;
+        }
+        atlas.references--;
+        if(atlas.references > 0) {
+            return;
+        }
+        atlas.releasedAt = ++releases;
+        int unused = 0;
+        GlyphAtlas oldest = null;
+        for(int i = 0; i < atlases.size(); i++) {
+            GlyphAtlas candidate = atlases.get(i);
+            if(candidate.references == 0) {
+                unused++;
+                if(oldest == null || candidate.releasedAt < oldest.releasedAt) {
+                    oldest = candidate;
+                }
+            }
+        }
+        if(unused > MAX_UNUSED_ATLASES) {
+            atlases.remove(oldest);
+            oldest.bitmap.recycle();
+        }
+    }
+
+    /**
+     * @return number of atlases in cache, used and unused
+     */
+    static int size() {
+        return atlases.size();
+    }
+
+    /**
+     * @return slot of symbol or -1 if atlas doesn't have it
+     */
+    int indexOf(char symbol) {
+        return symbols.indexOf(symbol);
+    }
+
+    private boolean matches(String symbols, Paint textPaint) {
+        return this.symbols.equals(symbols)
+                && textSize == textPaint.getTextSize()
+                && color == textPaint.getColor()
+                && (typeface == null ? textPaint.getTypeface() == null
+                        : typeface.equals(textPaint.getTypeface()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.tixon.squarededittext;
+
+/**
+ * Receives log messages of the library
+ * @see Logs#setLogger(Logger)
+ */
+public interface Logger {
+    /**
+     * @param priority priority as in android.util.Log, e.g. Log.DEBUG
+     * @param tag tag of message
+     * @param message ready message, secrets in it are already redacted unless revealed
+     */
+    void log(int priority, String tag, String message);
+}
@@ -0,0 +1,1128 @@
+package com.tixon.squarededittext;
+
+import android.annotation.TargetApi;
+import android.content.ClipData;
+import android.content.ClipboardManager;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Build;
+import android.text.Editable;
+import android.text.Selection;
+import android.text.SpannableStringBuilder;
+import android.text.TextWatcher;
+import android.util.AttributeSet;
+import android.view.ActionMode;
+import android.view.KeyEvent;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.MotionEvent;
+import android.view.autofill.AutofillValue;
+import android.view.View;
+import android.view.inputmethod.BaseInputConnection;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+import android.view.inputmethod.InputMethodManager;
+import android.widget.EditText;
+import android.widget.TextView;
+
+/**
+ * Created by tikhon.osipov on 08.07.2016
+ *
+ * @author tikhon.osipov
+ *
+ * This EditText has custom behavior and background. It consists of several cells and a cursor
+ * which are drawn on the background in the onDraw method.
+ * Number of cells is 8 by default, but this number can be changed in custom attribute
+ * @see #readAttrs(Context, AttributeSet)
+ * or by calling a method
+ * @see #setCellsNumber(int)
+ *
+ * The initial state of EditText: text is empty, cursor is at the first position.
+ * When user starts to type any symbol, it is placing into cell selected with a cursor, and
+ * cursor is moving to the next cell. When the last cell is selected with cursor and empty,
+ * and user types any symbol, it is placing into this cell, and cursor disappears;
+ * @see #onTypingFinished() is running which tells that user has filled all the cells.
+ * @see TypingFinishedListener
+ *
+ * This EditText dispatches its activation in method when somewhere is called method
+ * "editText.activate()"
+ * EditText can become activated only if all the cells are filled with symbols.
+ * @see #dispatchSetActivated(boolean)
+ *
+ * When user activates EditText, the last cell becomes selected with a cursor.
+ * So behavior of EditText changes. While there are any symbols in EditText
+ * cells, when user types any symbol, symbol in selected cell by cursor is replaced by
+ * symbol which was typed by user, and previous behavior returns.
+ * Also when user deletes symbols, cursor selects the last symbol in EditText.
+ * When user deletes all symbols in EditText, EditText takes the initial state.
+ * This logic is implemented by
+ * @see CellInputStateMachine
+ */
+public class LoginEditText extends EditText implements TypingFinishedListener {
+
+    private TypingFinishedListener typingFinishedListener;
+
+    public void setTypingFinishedListener(TypingFinishedListener listener) {
+        this.typingFinishedListener = listener;
+    }
+
+    //null when metrics are not collected, then nothing is measured
+    private MetricsListener metricsListener;
+    private long keystrokeStart;
+    private int keystrokeReentries;
+
+    /**
+     * Report durations of frames and keystrokes and invalidated areas
+     * @param listener listener to report to or null to stop measuring
+     */
+    public void setMetricsListener(MetricsListener listener) {
+        this.metricsListener = listener;
+    }
+
+    private static final int CELLS_NUMBER_DEFAULT = CellConfig.CELLS_NUMBER_DEFAULT;
+
+    public static final float STROKE_MARGIN_DP = 2.0f;
+    public static final float STROKE_WIDTH_SQUARE_DP = 1.0f;
+    public static final float STROKE_WIDTH_CURSOR_DP = 3.0f;
+    public static final float CELL_GROUP_GAP_DP = 8.0f;
+    public static final float SQUARE_WIDTH_DP = CellGeometry.SQUARE_WIDTH;
+
+    static final long CURSOR_BLINK_MS = 500;
+
+    /**
+     * cellsNumber is read from custom attributes from LoginEditText
+     * default value is 8
+     */
+    private int maxTextLength = CELLS_NUMBER_DEFAULT;
+    private int cellsNumber = CELLS_NUMBER_DEFAULT;
+
+    /**
+     * visibleCellsNumber is read from custom attributes from LoginEditText,
+     * 0 (default) shows all cells, otherwise cells are scrolled horizontally
+     * and only visible ones are laid out and drawn
+     */
+    private int visibleCellsNumber = 0;
+    final CellWindow window = new CellWindow(CELLS_NUMBER_DEFAULT);
+
+    /**
+     * cellGroups, cellGroupGap and cellGroupDashes are read from custom attributes from
+     * LoginEditText. Groups are laid out only when all cells are visible
+     */
+    private int[] cellGroups;
+    //gap in pixels, negative to use CELL_GROUP_GAP_DP
+    private float cellGroupGap = -1.0f;
+    private boolean cellGroupDashes = false;
+
+    /**
+     * Attributes read from layout, style and theme, shared by views of the same style
+     */
+    private CellConfig config;
+
+    private boolean pixelSnapping = false;
+
+    /**
+     * Squares, symbols and cursor are drawn by renderer with style shared by views
+     * of the same size and attributes, taken in
+     * @see #updateGeometry()
+     */
+    final CellRenderer renderer = new CellRenderer();
+
+    /**
+     * The last rect invalidated after changing text or cursor
+     */
+    final Rect dirtyRect = new Rect();
+    private final int[] changedSlots = new int[2];
+
+    /**
+     * Symbols shown in cells and typing/deleting logic, capacity of buffers is number of cells
+     */
+    final CellInputStateMachine input = new CellInputStateMachine(CELLS_NUMBER_DEFAULT);
+    private CellBuffer previousText = new CellBuffer(CELLS_NUMBER_DEFAULT);
+    private int previousCursorCell;
+
+    private boolean needCursorAtTheEnd = false;
+
+    /**
+     * cursorBlinking is read from custom attributes from LoginEditText.
+     * Cursor blinks only while view is focused and shown, one runnable is posted again and again
+     */
+    private boolean cursorBlinking = false;
+    //true while blinking cursor is hidden, false by default because
+    // focus and visibility callbacks may come from constructor of TextView
+    private boolean cursorBlinkHidden = false;
+    private final Runnable cursorBlink = new Runnable() {
+        @Override
+        public void run() {
+            cursorBlinkHidden = !cursorBlinkHidden;
+            invalidateCursor();
+            if(cursorCell() >= 0) {
+                postDelayed(this, CURSOR_BLINK_MS);
+            }
+        }
+    };
+
+    /**
+     * textLayoutBypassed is read from custom attributes from LoginEditText.
+     * When true, Editable is still kept for input methods, but TextView doesn't build
+     * its Layout and doesn't draw: view is measured by its cells, cursor, selection
+     * and touch handling of TextView are replaced by cells
+     */
+    private boolean textLayoutBypassed = false;
+
+    //true when pre-draw listener of TextView is removed while TextView counts it as registered
+    private boolean preDrawUnregistered = false;
+
+    //true while Editable is changed to match cells
+    private boolean syncingEditable = false;
+
+    /**
+     * True while text or spans of Editable change, e.g. selection
+     * @see CellsEditable
+     * @see #invalidate()
+     */
+    private boolean editableChanging = false;
+
+    CredentialsTextWatcher textWatcher;
+
+    public LoginEditText(Context context) {
+        super(context);
+        readAttrs(context, null);
+        init();
+    }
+
+    public LoginEditText(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        readAttrs(context, attrs);
+        init();
+    }
+
+    public LoginEditText(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        readAttrs(context, attrs);
+        init();
+    }
+
+    /**
+     * Checks that EditText is filled with symbols
+     * @return true if filled, false otherwise
+     */
+    private boolean isFull() {
+        return input.text().isFull();
+    }
+
+    /**
+     * Read custom attributes values, e.g. cellsNumber that defines number of cells
+     * in background of EditText. Attributes which have setters are copied into view,
+     * the rest are used from config
+     * @see CellConfig
+     */
+    private void readAttrs(Context context, AttributeSet attrs) {
+        config = CellConfig.obtain(context, attrs);
+        cellsNumber = config.cellsNumber;
+        maxTextLength = cellsNumber;
+        visibleCellsNumber = config.visibleCellsNumber;
+        cellGroups = checkCellGroups(config.cellGroups);
+        cellGroupGap = config.cellGroupGap;
+        cellGroupDashes = config.cellGroupDashes;
+        pixelSnapping = config.pixelSnapping;
+        cursorBlinking = config.cursorBlinking;
+        renderer.setGlyphAtlasSymbols(config.glyphAtlasSymbols);
+        textLayoutBypassed = config.textLayoutBypassed;
+        resizeBuffers();
+        updateGeometry();
+    }
+
+    private void resizeBuffers() {
+        if(previousText.capacity() != maxTextLength) {
+            input.resize(maxTextLength);
+            previousText = new CellBuffer(maxTextLength);
+        }
+        window.resize(maxTextLength, visibleCellsNumber);
+        window.scrollTo(cursorCell());
+    }
+
+    /**
+     * Set number of cells programmatically
+     * @param number number of cells
+     */
+    @SuppressWarnings("unused")
+    public void setCellsNumber(int number) {
+        if(number > 0) {
+            this.cellsNumber = number;
+            this.maxTextLength = number;
+            if(cellGroups != null && CellGroups.cellsNumber(cellGroups) != number) {
+                cellGroups = null;
+            }
+            resizeBuffers();
+            updateGeometry();
+            invalidate();
+        }
+    }
+
+    /**
+     * Set number of cells shown at once, the rest are scrolled to with cursor.
+     * Use it for long codes whose cells would be too small to fit into view
+     * @param number number of visible cells, 0 to show all cells
+     */
+    @SuppressWarnings("unused")
+    public void setVisibleCellsNumber(int number) {
+        if(number >= 0 && number != visibleCellsNumber) {
+            this.visibleCellsNumber = number;
+            resizeBuffers();
+            updateGeometry();
+            invalidate();
+        }
+    }
+
+    /**
+     * Split cells into groups, e.g. "3-3" for 6 cells or "4-4-4-4" for 16 cells
+     * @param pattern sizes of groups separated by non-digit symbols, null for no groups
+     * @throws IllegalArgumentException if groups don't sum to number of cells
+     */
+    @SuppressWarnings("unused")
+    public void setCellGroups(String pattern) {
+        cellGroups = checkCellGroups(pattern);
+        updateGeometry();
+        invalidate();
+    }
+
+    /**
+     * Set gap between groups of cells
+     * @param gap gap in pixels in addition to usual interval between cells
+     */
+    @SuppressWarnings("unused")
+    public void setCellGroupGap(float gap) {
+        if(gap >= 0.0f && gap != cellGroupGap) {
+            this.cellGroupGap = gap;
+            updateGeometry();
+            invalidate();
+        }
+    }
+
+    /**
+     * Show or hide a dash between groups of cells
+     */
+    @SuppressWarnings("unused")
+    public void setCellGroupDashes(boolean dashes) {
+        if(this.cellGroupDashes != dashes) {
+            this.cellGroupDashes = dashes;
+            updateGeometry();
+            invalidate();
+        }
+    }
+
+    /**
+     * Lay out squares and cursor in whole pixels and draw them without anti-aliasing,
+     * so thin strokes are sharp and drawing takes the fast path
+     * @param snapping true to snap squares and cursor to pixels
+     */
+    @SuppressWarnings("unused")
+    public void setPixelSnapping(boolean snapping) {
+        if(this.pixelSnapping != snapping) {
+            this.pixelSnapping = snapping;
+            updateGeometry();
+            invalidate();
+        }
+    }
+
+    /**
+     * Make cursor blink, only the cell with cursor is redrawn on each blink
+     * @param blinking true to blink, false to show cursor all the time
+     */
+    @SuppressWarnings("unused")
+    public void setCursorBlinking(boolean blinking) {
+        if(this.cursorBlinking != blinking) {
+            this.cursorBlinking = blinking;
+            restartCursorBlink();
+        }
+    }
+
+    /**
+     * Draw symbols from a pre-rendered bitmap instead of drawing text,
+     * e.g. "0123456789" for numeric codes
+     * @param symbols symbols to rasterize once, null or empty to draw all symbols as text
+     */
+    @SuppressWarnings("unused")
+    public void setGlyphAtlasSymbols(String symbols) {
+        if(renderer.setGlyphAtlasSymbols(symbols)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Skip text layout and drawing of TextView, only cells are laid out and drawn.
+     * Text stays in Editable, so input methods and autofill work as usual,
+     * but TextView's own selection handles and context menu are not shown
+     * @param bypassed true to skip TextView layout and drawing
+     */
+    @SuppressWarnings("unused")
+    public void setTextLayoutBypassed(boolean bypassed) {
+        if(this.textLayoutBypassed != bypassed) {
+            this.textLayoutBypassed = bypassed;
+            applyTextLayoutBypass();
+            if(bypassed) {
+                dropTextLayout();
+            } else if(preDrawUnregistered) {
+                //TextView still counts itself as registered, so it is registered for it
+                // to build Layout and scroll to cursor on the next frame
+                getViewTreeObserver().addOnPreDrawListener(this);
+                preDrawUnregistered = false;
+            }
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    private void applyTextLayoutBypass() {
+        //caret of TextView would blink and invalidate whole view without layout
+        setCursorVisible(!textLayoutBypassed);
+    }
+
+    /**
+     * Layout that is already built would still be updated on each keystroke. Setting
+     * break strategy drops it even when the strategy stays the same. Before Android 6.0
+     * Layout is kept until text appearance changes
+     */
+    private void dropTextLayout() {
+        if(getLayout() != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            setBreakStrategy(getBreakStrategy());
+        }
+    }
+
+    private int[] checkCellGroups(String pattern) {
+        int[] groups = CellGroups.parse(pattern);
+        if(groups != null && CellGroups.cellsNumber(groups) != cellsNumber) {
+            throw new IllegalArgumentException("Groups " + pattern + " don't match "
+                    + cellsNumber + " cells");
+        }
+        return groups;
+    }
+
+    /**
+     * Enable or disable drawing of all squares in a single draw operation
+     * @param batched true to draw squares with one drawLines call, false to draw them one by one
+     */
+    @SuppressWarnings("unused")
+    public void setOutlinesBatched(boolean batched) {
+        if(renderer.setOutlinesBatched(batched)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Enable or disable caching of squares in a bitmap. Bitmap is rebuilt when size,
+     * number of cells or configuration changes
+     * @param enabled true to draw squares from cached bitmap
+     */
+    @SuppressWarnings("unused")
+    public void setBackgroundCacheEnabled(boolean enabled) {
+        if(renderer.setBackgroundCacheEnabled(enabled)) {
+            invalidate();
+        }
+    }
+
+    void init() {
+        setTypingFinishedListener(this);
+        //text set by constructor of TextView is moved into Editable which reports its changes.
+        //Factory is created for each view: Editable suppresses invalidation of the view which
+        //owns it, and a shared factory couldn't tell which view calls newEditable from setText
+        setEditableFactory(new Editable.Factory() {
+            @Override
+            public Editable newEditable(CharSequence source) {
+                return new CellsEditable(source);
+            }
+        });
+        setText(getText());
+        textWatcher = new CredentialsTextWatcher();
+        addTextChangedListener(textWatcher);
+        input.setDigitsOnly(Utils.isNumericInputType(getInputType()));
+
+        disableActionMode();
+        disableEnterPress();
+        disableActionDone();
+        enableAutofill();
+        if(textLayoutBypassed) {
+            applyTextLayoutBypass();
+        }
+
+        updateGeometry();
+        invalidate();
+    }
+
+    /**
+     * Take style with geometry and paints for current size and attributes. Called only when
+     * width, number of cells or attributes change, so onDraw does no calculations
+     * and doesn't mutate paints
+     */
+    private void updateGeometry() {
+        //scrolled cells are not grouped, groups would move with scrolling
+        int[] groups = window.isScrolling() ? null : cellGroups;
+        renderer.updateStyle(getContext(), config, getWidth(), window.visible(),
+                groups, cellGroupGap, cellGroupDashes, pixelSnapping);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if(!textLayoutBypassed) {
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
+        //only cells are drawn, they are measured as squares of design width without building Layout
+        int[] groups = window.isScrolling() ? null : cellGroups;
+        int width = Math.max(renderer.measureCellsWidth(getContext(), config, window.visible(),
+                groups, cellGroupGap), getSuggestedMinimumWidth());
+        width = resolveSize(width, widthMeasureSpec);
+        int height = Math.max(renderer.measureCellsHeight(getContext(), config, width,
+                window.visible(), groups, cellGroupGap, pixelSnapping), getSuggestedMinimumHeight());
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        if(!textLayoutBypassed) {
+            return super.onPreDraw();
+        }
+        //TextView builds Layout here to scroll to cursor, cells scroll on their own.
+        // TextView still counts itself as registered, so it doesn't register on each keystroke
+        getViewTreeObserver().removeOnPreDrawListener(this);
+        preDrawUnregistered = true;
+        return true;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if(!textLayoutBypassed) {
+            return super.onTouchEvent(event);
+        }
+        //selection of TextView needs Layout, a tap only focuses view and shows keyboard
+        if(!isEnabled()) {
+            return false;
+        }
+        if(event.getActionMasked() == MotionEvent.ACTION_UP) {
+            requestFocus();
+            InputMethodManager imm = inputMethodManager();
+            if(imm != null) {
+                imm.showSoftInput(this, 0);
+            }
+            performClick();
+        }
+        return true;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateGeometry();
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        //density and colors may depend on configuration
+        config = config.withCurrentColors(getContext());
+        renderer.invalidateConfiguration();
+        updateGeometry();
+        invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        renderer.release();
+        stopCursorBlink();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        //TextView registers again for pre-draw when it counts itself as registered
+        preDrawUnregistered = false;
+        restartCursorBlink();
+    }
+
+    @Override
+    protected void onFocusChanged(boolean focused, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(focused, direction, previouslyFocusedRect);
+        restartCursorBlink();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        restartCursorBlink();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        restartCursorBlink();
+    }
+
+    /**
+     * Show cursor and blink it from the start, or stop blinking if nobody can see it
+     * or cells are filled and there is no cursor
+     */
+    private void restartCursorBlink() {
+        stopCursorBlink();
+        if(cursorBlinking && cursorCell() >= 0 && isFocused() && isShown()
+                && getWindowVisibility() == VISIBLE) {
+            postDelayed(cursorBlink, CURSOR_BLINK_MS);
+        }
+    }
+
+    private void stopCursorBlink() {
+        removeCallbacks(cursorBlink);
+        if(cursorBlinkHidden) {
+            cursorBlinkHidden = false;
+            invalidateCursor();
+        }
+    }
+
+    /**
+     * Invalidate only the cell with cursor
+     */
+    private void invalidateCursor() {
+        int slot = window.slot(cursorCell());
+        if(slot >= 0 && slot < window.visible()) {
+            invalidateSlots(slot, slot);
+        }
+    }
+
+    /**
+     * Index of cell selected with cursor
+     * @return index of cell or -1 if cursor is not shown
+     */
+    int cursorCell() {
+        int cell = input.cursorCell();
+        if(cell < 0 && needCursorAtTheEnd) {
+            return input.text().length() - 1;
+        }
+        return cell;
+    }
+
+    public void drawCursorAtTheEnd() {
+        int oldCursorCell = cursorCell();
+        needCursorAtTheEnd = true;
+        invalidateChangedCells(input.text(), oldCursorCell);
+        restartCursorBlink();
+    }
+
+    public void clearCursorAtTheEnd() {
+        int oldCursorCell = cursorCell();
+        needCursorAtTheEnd = false;
+        invalidateChangedCells(input.text(), oldCursorCell);
+        restartCursorBlink();
+    }
+
+    /**
+     * Invalidate only cells whose symbols changed and cells of old and new cursor positions
+     * @param oldText text before change
+     * @param oldCursorCell cursor cell before change
+     */
+    private void invalidateChangedCells(CharSequence oldText, int oldCursorCell) {
+        if(window.changedSlots(oldText, oldCursorCell, input.text(), cursorCell(), changedSlots)) {
+            invalidateSlots(changedSlots[0], changedSlots[1]);
+        }
+    }
+
+    /**
+     * TextView invalidates the whole view after each change of its text and selection,
+     * but they are not shown. While Editable changes only changed cells are invalidated,
+     * otherwise each keystroke would redraw the whole view and the partial invalidation
+     * of cells would be dropped as already covered
+     */
+    @Override
+    public void invalidate() {
+        if(editableChanging) {
+            return;
+        }
+        super.invalidate();
+    }
+
+    private void invalidateSlots(int first, int last) {
+        getCellsRect(first, last, dirtyRect);
+        invalidate(dirtyRect);
+        if(metricsListener != null) {
+            metricsListener.onCellsInvalidated(dirtyRect);
+        }
+    }
+
+    /**
+     * Get rect covering visible cells from first to last including their strokes
+     * @param first slot of first cell
+     * @param last slot of last cell
+     * @param out rect to store result
+     */
+    void getCellsRect(int first, int last, Rect out) {
+        renderer.getCellsRect(first, last, out);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        MetricsListener listener = metricsListener;
+        if(listener == null) {
+            if(!textLayoutBypassed) {
+                super.onDraw(canvas);
+            }
+            drawCells(canvas);
+            return;
+        }
+        long start = System.nanoTime();
+        if(!textLayoutBypassed) {
+            super.onDraw(canvas);
+        }
+        drawCells(canvas);
+        listener.onFrameDrawn(System.nanoTime() - start);
+    }
+
+    /**
+     * Draw squares, symbols and cursor using cached geometry
+     */
+    void drawCells(Canvas canvas) {
+        renderer.draw(canvas, getWidth(), getHeight(), input.text(), window,
+                cursorBlinkHidden ? -1 : cursorCell());
+    }
+
+    // Override methods
+
+    /**
+     * Letters are not placed into cells of numeric keyboard, neither typed nor pasted
+     */
+    @Override
+    public void setInputType(int type) {
+        super.setInputType(type);
+        //called by constructor of TextView before fields are initialized
+        if(input != null) {
+            input.setDigitsOnly(Utils.isNumericInputType(type));
+        }
+    }
+
+    @Override
+    protected void dispatchSetActivated(boolean activated) {
+        super.dispatchSetActivated(activated);
+        if(activated) {
+            if(isFull()) {
+                requestFocus();
+                beginCellsChange();
+                input.activate();
+                needCursorAtTheEnd = true;
+                endCellsChange(false);
+            }
+        }
+        if(Logs.DEBUG) {
+            Logs.d("setActivated = " + activated);
+        }
+    }
+
+    /**
+     * Make Editable match symbols in cells, so that the next change of Editable made
+     * by keyboard can be mapped to typing or deleting.
+     * Cells are drawn from the buffer of input, Editable only mirrors it. Only the differing
+     * tail of Editable is replaced in place, so there is no setText with its re-layout,
+     * restart of keyboard input and second pass of watcher
+     */
+    private void syncEditable() {
+        CellBuffer text = input.text();
+        int length = input.editableLength();
+        Editable editable = getText();
+        int editableLength = editable.length();
+        int common = 0;
+        int commonMax = Math.min(editableLength, length);
+        while(common < commonMax && editable.charAt(common) == text.charAt(common)) {
+            common++;
+        }
+        if(common == length && editableLength == length) {
+            return;
+        }
+        //composing text of keyboard is finished, its spans would cover rewritten symbols
+        BaseInputConnection.removeComposingSpans(editable);
+        syncingEditable = true;
+        try {
+            editable.replace(common, editableLength, text, common, length);
+        } finally {
+            syncingEditable = false;
+        }
+        Selection.setSelection(editable, length);
+        //TextView reports selection to keyboard only when it draws its text
+        InputMethodManager imm = inputMethodManager();
+        if(imm != null) {
+            imm.updateSelection(this, length, length, -1, -1);
+        }
+    }
+
+    private InputMethodManager inputMethodManager() {
+        return (InputMethodManager) getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
+    }
+
+    /**
+     * When typed all digits
+     */
+    @Override
+    public void onTypingFinished() {
+        clearCursorAtTheEnd();
+        clearFocus();
+        setActivated(false);
+        if(Logs.DEBUG) {
+            Logs.d("Typing finished, text = " + Logs.secret(getText()));
+        }
+    }
+
+    /**
+     * TextWatcher for notifying of entering text
+     */
+    class CredentialsTextWatcher implements TextWatcher {
+        //true when keystroke has changed cells and Editable should be synced with them
+        private boolean changed = false;
+        private boolean typingFinished = false;
+
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        }
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+            if(syncingEditable) {
+                //change made by syncEditable, cells already show it
+                keystrokeReentries++;
+                return;
+            }
+            if(before == 0 && count == 1) {
+                //typing
+                beginCellsChange();
+                typingFinished = input.type(s.charAt(start));
+                changed = true;
+            } else if(before == 1 && count == 0) {
+                //deleting
+                beginCellsChange();
+                input.delete();
+                changed = true;
+            } else if(before == 1 && count == 1) {
+                //keyboard replaced a symbol, e.g. corrected composing text.
+                //Selected symbol is replaced by typing, other one is deleted first
+                beginCellsChange();
+                if(input.state() != CellInputStateMachine.State.SELECTED) {
+                    input.delete();
+                }
+                typingFinished = input.type(s.charAt(start));
+                changed = true;
+            } else if(before != 0 || count != 0) {
+                //paste, autofill, clearing or deleting of a word: cells show the whole text
+                beginCellsChange();
+                input.clear();
+                typingFinished = input.fill(s, 0, s.length());
+                changed = true;
+            }
+        }
+        @Override
+        public void afterTextChanged(Editable s) {
+            if(syncingEditable || !changed) {
+                return;
+            }
+            //Editable may be changed only here, not in onTextChanged
+            changed = false;
+            boolean finished = typingFinished;
+            typingFinished = false;
+            endCellsChange(finished);
+        }
+    }
+
+    /**
+     * Editable of view, all changes of its text and spans go through replace, setSpan and
+     * removeSpan, so view knows when TextView reacts to them
+     */
+    private class CellsEditable extends SpannableStringBuilder {
+        CellsEditable(CharSequence source) {
+            super(source);
+        }
+
+        @Override
+        public SpannableStringBuilder replace(int start, int end, CharSequence tb,
+                                              int tbstart, int tbend) {
+            boolean outermost = !editableChanging;
+            editableChanging = true;
+            try {
+                return super.replace(start, end, tb, tbstart, tbend);
+            } finally {
+                if(outermost) {
+                    editableChanging = false;
+                }
+            }
+        }
+
+        @Override
+        public void setSpan(Object what, int start, int end, int flags) {
+            boolean outermost = !editableChanging;
+            editableChanging = true;
+            try {
+                super.setSpan(what, start, end, flags);
+            } finally {
+                if(outermost) {
+                    editableChanging = false;
+                }
+            }
+        }
+
+        @Override
+        public void removeSpan(Object what) {
+            boolean outermost = !editableChanging;
+            editableChanging = true;
+            try {
+                super.removeSpan(what);
+            } finally {
+                if(outermost) {
+                    editableChanging = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remember cells before change to invalidate only changed ones after it
+     */
+    private void beginCellsChange() {
+        if(metricsListener != null) {
+            keystrokeStart = System.nanoTime();
+            keystrokeReentries = 0;
+        }
+        previousText.set(input.text());
+        previousCursorCell = cursorCell();
+    }
+
+    /**
+     * Sync Editable with changed cells, redraw them and notify about finished typing
+     * @param typingFinished true if change has filled all the cells
+     */
+    private void endCellsChange(boolean typingFinished) {
+        syncEditable();
+        invalidateChangedCells(previousText, previousCursorCell);
+        if(cursorBlinking) {
+            //cursor stays shown while typing
+            restartCursorBlink();
+        }
+        if(metricsListener != null) {
+            metricsListener.onKeystrokeHandled(System.nanoTime() - keystrokeStart, keystrokeReentries);
+        }
+        if(typingFinished) {
+            typingFinishedListener.onTypingFinished();
+        }
+    }
+
+    /**
+     * Type symbols committed by keyboard as one change of cells
+     * @param symbols committed text
+     * @param start index of the first symbol
+     * @param end index after the last symbol
+     */
+    void commitSymbols(CharSequence symbols, int start, int end) {
+        beginCellsChange();
+        endCellsChange(input.typeAll(symbols, start, end));
+    }
+
+    /**
+     * Replace symbols in cells with a whole code, e.g. received by SMS or pasted.
+     * Cells are changed, synced with Editable and invalidated once, and
+     * TypingFinishedListener is notified once if the code fills all the cells.
+     * Separators like spaces and dashes are skipped, symbols which don't fit are dropped,
+     * empty code clears cells
+     * @param code code to place into cells
+     */
+    public void setCode(CharSequence code) {
+        beginCellsChange();
+        input.clear();
+        endCellsChange(input.fill(code, 0, code.length()));
+    }
+
+    /**
+     * Type a symbol sent by keyboard as key event
+     */
+    void commitSymbol(char symbol) {
+        beginCellsChange();
+        endCellsChange(input.type(symbol));
+    }
+
+    /**
+     * Delete symbols as keyboard asked
+     * @param count number of deleted symbols
+     */
+    void deleteSymbols(int count) {
+        beginCellsChange();
+        for(int i = 0; i < count; i++) {
+            input.delete();
+        }
+        endCellsChange(false);
+    }
+
+    @Override
+    public InputConnection onCreateInputConnection(EditorInfo outAttrs) {
+        //TextView fills EditorInfo and keeps state of input method, its connection is replaced
+        if(super.onCreateInputConnection(outAttrs) == null) {
+            return null;
+        }
+        //selected last symbol is kept out of Editable, fullscreen editor would show text without it
+        outAttrs.imeOptions |= EditorInfo.IME_FLAG_NO_EXTRACT_UI;
+        return new CellInputConnection(this);
+    }
+
+    /**
+     * Paste clipboard as a whole code instead of inserting it at cursor
+     */
+    @Override
+    public boolean onTextContextMenuItem(int id) {
+        if(id == android.R.id.paste) {
+            ClipboardManager clipboard = (ClipboardManager) getContext()
+                    .getSystemService(Context.CLIPBOARD_SERVICE);
+            ClipData clip = clipboard.getPrimaryClip();
+            if(clip != null && clip.getItemCount() > 0) {
+                CharSequence code = clip.getItemAt(0).coerceToText(getContext());
+                if(code != null) {
+                    setCode(code);
+                }
+            }
+            return true;
+        }
+        return super.onTextContextMenuItem(id);
+    }
+
+    //autofill
+
+    /**
+     * Autofill hint of one-time codes received by SMS
+     */
+    public static final String AUTOFILL_HINT_SMS_OTP = "smsOTPCode";
+
+    /**
+     * Let Autofill fill the whole code, importance and hint set in layout
+     * (android:importantForAutofill, android:autofillHints) are kept
+     */
+    private void enableAutofill() {
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            if(getImportantForAutofill() == IMPORTANT_FOR_AUTOFILL_AUTO) {
+                setImportantForAutofill(IMPORTANT_FOR_AUTOFILL_YES);
+            }
+            if(getAutofillHints() == null) {
+                setAutofillHints(AUTOFILL_HINT_SMS_OTP);
+            }
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    @Override
+    public int getAutofillType() {
+        return AUTOFILL_TYPE_TEXT;
+    }
+
+    /**
+     * Symbols of cells, Editable lacks the last one while it is selected with cursor
+     */
+    @TargetApi(Build.VERSION_CODES.O)
+    @Override
+    public AutofillValue getAutofillValue() {
+        return AutofillValue.forText(input.text().toString());
+    }
+
+    /**
+     * Place autofilled code into cells as one change instead of setText,
+     * so the code is drawn once and doesn't go through TextWatcher
+     * @see #setCode(CharSequence)
+     */
+    @TargetApi(Build.VERSION_CODES.O)
+    @Override
+    public void autofill(AutofillValue value) {
+        if(value == null || !value.isText()) {
+            return;
+        }
+        setCode(value.getTextValue());
+    }
+
+    //disables
+
+    /**
+     * Disable selection change
+     */
+    @Override
+    public void onSelectionChanged(int start, int end) {
+        CharSequence text = getText();
+        if (text != null) {
+            if (start != text.length() || end != text.length()) {
+                setSelection(text.length(), text.length());
+                return;
+            }
+        }
+        super.onSelectionChanged(start, end);
+    }
+
+    /**
+     * Listeners which disable actions don't depend on view, so all views share them
+     */
+    private static final OnEditorActionListener ACTION_DONE_DISABLER = new OnEditorActionListener() {
+        @Override
+        public boolean onEditorAction(TextView v, int actionId, KeyEvent event) {
+            if(actionId == EditorInfo.IME_ACTION_DONE) {
+                //do nothing
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static final OnKeyListener ENTER_PRESS_DISABLER = new OnKeyListener() {
+        @Override
+        public boolean onKey(View v, int keyCode, KeyEvent event) {
+            if(keyCode == KeyEvent.KEYCODE_ENTER || keyCode == KeyEvent.KEYCODE_NUMPAD_ENTER) {
+                //do nothing
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static final ActionMode.Callback ACTION_MODE_DISABLER = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            //only paste of a whole code is left
+            for(int i = menu.size() - 1; i >= 0; i--) {
+                int id = menu.getItem(i).getItemId();
+                if(id != android.R.id.paste) {
+                    menu.removeItem(id);
+                }
+            }
+            return menu.size() > 0;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            return false;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+        }
+    };
+
+    /**
+     * Disable action of "done" button on keyboard
+     */
+    private void disableActionDone() {
+        setOnEditorActionListener(ACTION_DONE_DISABLER);
+    }
+
+    /**
+     * Disable action of "enter" button on keyboard
+     */
+    private void disableEnterPress() {
+        setOnKeyListener(ENTER_PRESS_DISABLER);
+    }
+
+    /**
+     * Disable long click on EditText, calling ActionMode and copy/cut, only paste is left
+     */
+    private void disableActionMode() {
+        setCustomSelectionActionModeCallback(ACTION_MODE_DISABLER);
+    }
+}
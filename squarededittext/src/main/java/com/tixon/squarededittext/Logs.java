@@ -0,0 +1,71 @@
+package com.tixon.squarededittext;
+
+import android.util.Log;
+
+/**
+ * Logging of the library.
+ * Every call is wrapped into check of static final flag, e.g.
+ * <pre>
+ * if(Logs.DEBUG) {
+ *     Logs.d("setActivated = " + activated);
+ * }
+ * </pre>
+ * so in release build the flag is false and the whole block with building
+ * of message is removed by compiler and R8.
+ * Entered symbols are secrets, they are logged only with {@link #secret(CharSequence)}
+ * which hides them unless {@link #setSecretsRevealed(boolean)} is called
+ */
+public final class Logs {
+    static final String TAG = "LoginEditText";
+
+    /**
+     * Lowest priority which is logged, Log.ASSERT + 1 turns logging off
+     */
+    static final int LEVEL = BuildConfig.DEBUG ? Log.DEBUG : Log.ASSERT + 1;
+    static final boolean DEBUG = LEVEL <= Log.DEBUG;
+
+    private static final Logger ANDROID_LOGGER = new Logger() {
+        @Override
+        public void log(int priority, String tag, String message) {
+            Log.println(priority, tag, message);
+        }
+    };
+
+    private static Logger logger = ANDROID_LOGGER;
+    private static boolean secretsRevealed = false;
+
+    private Logs() {
+    }
+
+    /**
+     * Set where messages go, android.util.Log by default
+     * @param logger logger or null to drop messages
+     */
+    public static void setLogger(Logger logger) {
+        Logs.logger = logger;
+    }
+
+    /**
+     * Log entered symbols as they are instead of their number, only for debugging
+     */
+    public static void setSecretsRevealed(boolean revealed) {
+        secretsRevealed = revealed;
+    }
+
+    static void d(String message) {
+        Logger current = logger;
+        if(current != null) {
+            current.log(Log.DEBUG, TAG, message);
+        }
+    }
+
+    /**
+     * @return symbols if secrets are revealed, otherwise only their number
+     */
+    static String secret(CharSequence symbols) {
+        if(secretsRevealed) {
+            return symbols.toString();
+        }
+        return "<" + symbols.length() + " symbols>";
+    }
+}
@@ -0,0 +1,29 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Rect;
+
+/**
+ * Receives timings of drawing and handling of keystrokes of LoginEditText.
+ * Methods are called on UI thread, so they should only remember values
+ * @see LoginEditText#setMetricsListener(MetricsListener)
+ */
+public interface MetricsListener {
+    /**
+     * Called after each frame of cells is drawn
+     * @param drawNanos duration of onDraw in nanoseconds
+     */
+    void onFrameDrawn(long drawNanos);
+
+    /**
+     * Called after keystroke has changed cells, before TypingFinishedListener is notified
+     * @param handleNanos duration of handling of keystroke in nanoseconds
+     * @param reentries number of times the change of Editable has come back to TextWatcher
+     */
+    void onKeystrokeHandled(long handleNanos, int reentries);
+
+    /**
+     * Called when changed cells are invalidated
+     * @param dirty invalidated area, it is reused and must not be kept
+     */
+    void onCellsInvalidated(Rect dirty);
+}
@@ -0,0 +1,35 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+import android.text.InputType;
+
+/**
+ * Created by tikhon.osipov on 15.06.2016
+ */
+public class Utils {
+    public static float dpToPx(float dp, Context context) {
+        return DensityUtils.dpToPx(dp, context.getResources().getDisplayMetrics().xdpi);
+    }
+
+    /**
+     * Convert several dp values at once, display metrics are read only one time
+     * @param dp values in dp
+     * @param px array to store values in pixels, at least of dp.length
+     */
+    public static void dpToPx(float[] dp, float[] px, Context context) {
+        DensityUtils.dpToPx(dp, px, context.getResources().getDisplayMetrics().xdpi);
+    }
+
+    public static int pxToDp(int px, Context context) {
+        return DensityUtils.pxToDp(px, context.getResources().getDisplayMetrics().xdpi);
+    }
+
+    /**
+     * @param type input type as in EditorInfo
+     * @return true if keyboard of this type enters only digits, e.g. of numbers or phones
+     */
+    static boolean isNumericInputType(int type) {
+        int typeClass = type & InputType.TYPE_MASK_CLASS;
+        return typeClass == InputType.TYPE_CLASS_NUMBER || typeClass == InputType.TYPE_CLASS_PHONE;
+    }
+}
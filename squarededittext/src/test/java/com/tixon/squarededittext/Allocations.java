@@ -0,0 +1,36 @@
+package com.tixon.squarededittext;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts bytes allocated by code on the current thread. Allocation is deterministic where
+ * timing on a build machine is not, so performance of hot paths is asserted with it
+ */
+class Allocations {
+    private static final int WARM_UP_RUNS = 2000;
+
+    private Allocations() {
+    }
+
+    /**
+     * @param runs number of measured runs
+     * @param code code to measure, it is run before measuring so that it is compiled
+     *             and caches are filled
+     * @return bytes allocated by measured runs
+     */
+    static long bytes(int runs, Runnable code) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for(int i = 0; i < WARM_UP_RUNS; i++) {
+            code.run();
+        }
+        long start = threads.getThreadAllocatedBytes(thread);
+        long overhead = threads.getThreadAllocatedBytes(thread) - start;
+        start = threads.getThreadAllocatedBytes(thread);
+        for(int i = 0; i < runs; i++) {
+            code.run();
+        }
+        return threads.getThreadAllocatedBytes(thread) - start - overhead;
+    }
+}
@@ -0,0 +1,94 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.AttributeSet;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Squares rasterized into bitmap must follow colors and size of view
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class BackgroundCacheTest {
+    private static final int CELLS = 4;
+
+    @Test
+    public void cache_rebuiltAfterColorOrSizeChange() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        CellConfig red = CellConfig.obtain(context, colored("#ff0000"));
+        CellConfig green = CellConfig.obtain(context, colored("#00ff00"));
+        CellRenderer renderer = new CellRenderer();
+        renderer.setBackgroundCacheEnabled(true);
+
+        renderer.updateStyle(context, red, TestViews.WIDTH, CELLS, null, -1.0f, false, false);
+        draw(renderer, TestViews.HEIGHT);
+        draw(renderer, TestViews.HEIGHT);
+        assertEquals(1, renderer.backgroundCacheBuilds);
+
+        renderer.updateStyle(context, green, TestViews.WIDTH, CELLS, null, -1.0f, false, false);
+        draw(renderer, TestViews.HEIGHT);
+        assertEquals(2, renderer.backgroundCacheBuilds);
+
+        //the same style for another height
+        draw(renderer, TestViews.HEIGHT * 2);
+        assertEquals(3, renderer.backgroundCacheBuilds);
+
+        renderer.updateStyle(context, green, TestViews.WIDTH / 2, CELLS, null, -1.0f, false, false);
+        draw(renderer, TestViews.HEIGHT * 2);
+        assertEquals(4, renderer.backgroundCacheBuilds);
+    }
+
+    @Test
+    public void configurationChange_rebuildsCache() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(CELLS);
+        editText.setBackgroundCacheEnabled(true);
+        editText.drawCells(new RecordingCanvas());
+        assertEquals(1, editText.renderer.backgroundCacheBuilds);
+
+        Resources resources = RuntimeEnvironment.application.getResources();
+        editText.onConfigurationChanged(new Configuration(resources.getConfiguration()));
+        editText.drawCells(new RecordingCanvas());
+        assertEquals(2, editText.renderer.backgroundCacheBuilds);
+    }
+
+    @Test
+    public void nightModeChange_readsCachedConfigAgain() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .setStyleAttribute("@style/LoginEditText.OneTimeCode")
+                .build();
+        CellConfig day = CellConfig.obtain(context, attrs);
+        assertSame(day, CellConfig.obtain(context, attrs));
+
+        Resources resources = context.getResources();
+        Configuration configuration = new Configuration(resources.getConfiguration());
+        configuration.uiMode = Configuration.UI_MODE_NIGHT_YES | Configuration.UI_MODE_TYPE_NORMAL;
+        resources.updateConfiguration(configuration, resources.getDisplayMetrics());
+        CellConfig night = CellConfig.obtain(context, attrs);
+        assertNotSame(day, night);
+        assertSame(night, CellConfig.obtain(context, attrs));
+        //colors without night variants stay
+        assertSame(night, night.withCurrentColors(context));
+    }
+
+    private static AttributeSet colored(String color) {
+        return Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.cellColor, color)
+                .build();
+    }
+
+    private static void draw(CellRenderer renderer, int height) {
+        renderer.draw(new RecordingCanvas(), TestViews.WIDTH, height, new CellBuffer(CELLS),
+                new CellWindow(CELLS), -1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Rect;
+import android.text.InputType;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class BulkInputTest {
+    private static final int CELLS = 6;
+    private static final String CODE = "123456";
+
+    private LoginEditText bulk;
+    private Counter bulkCounter;
+    private LoginEditText single;
+    private Counter singleCounter;
+
+    @Before
+    public void setUp() throws Exception {
+        bulk = TestViews.loginEditText(CELLS);
+        bulkCounter = new Counter(bulk);
+        single = TestViews.loginEditText(CELLS);
+        singleCounter = new Counter(single);
+    }
+
+    @Test
+    public void setCode_matchesSingleCommits() throws Exception {
+        bulk.setCode("123-456");
+        for(int i = 0; i < CODE.length(); i++) {
+            single.commitSymbol(CODE.charAt(i));
+        }
+        assertSameCells();
+
+        //one transaction instead of one per symbol
+        assertEquals(1, bulkCounter.invalidations);
+        assertEquals(CODE.length(), singleCounter.invalidations);
+        assertEquals(1, bulkCounter.finished);
+        assertEquals(1, singleCounter.finished);
+    }
+
+    @Test
+    public void pastedText_placedAsCode() throws Exception {
+        bulk.getText().replace(0, 0, "12 34 56");
+        single.setCode(CODE);
+        assertSameCells();
+        assertEquals(1, bulkCounter.finished);
+    }
+
+    @Test
+    public void partialCode_leavesCursorAfterIt() throws Exception {
+        bulk.setCode("123");
+        assertEquals("123", bulk.getText().toString());
+        assertEquals(3, bulk.cursorCell());
+        assertEquals(0, bulkCounter.finished);
+    }
+
+    @Test
+    public void numericInput_dropsLettersOfCode() throws Exception {
+        bulk.setInputType(InputType.TYPE_CLASS_NUMBER);
+        bulk.setCode("12a34");
+        bulk.commitSymbol('b');
+        bulk.commitSymbols("5c6", 0, 3);
+        single.setCode(CODE);
+        assertSameCells();
+        assertEquals(1, bulkCounter.finished);
+    }
+
+    private void assertSameCells() {
+        assertEquals(single.input.text().toString(), bulk.input.text().toString());
+        assertEquals(single.getText().toString(), bulk.getText().toString());
+        assertEquals(single.input.state(), bulk.input.state());
+        assertEquals(single.cursorCell(), bulk.cursorCell());
+    }
+
+    private static class Counter implements MetricsListener, TypingFinishedListener {
+        int invalidations;
+        int finished;
+
+        Counter(LoginEditText editText) {
+            editText.setMetricsListener(this);
+            editText.setTypingFinishedListener(this);
+        }
+
+        @Override
+        public void onFrameDrawn(long drawNanos) {
+        }
+
+        @Override
+        public void onKeystrokeHandled(long handleNanos, int reentries) {
+        }
+
+        @Override
+        public void onCellsInvalidated(Rect dirty) {
+            invalidations++;
+        }
+
+        @Override
+        public void onTypingFinished() {
+            finished++;
+        }
+    }
+}
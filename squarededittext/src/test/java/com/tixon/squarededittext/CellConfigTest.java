@@ -0,0 +1,28 @@
+package com.tixon.squarededittext;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class CellConfigTest {
+    @Test
+    public void cellsNumberBelowOne_rejected() throws Exception {
+        for(String number : new String[] {"0", "-1"}) {
+            try {
+                CellConfig.obtain(RuntimeEnvironment.application, Robolectric.buildAttributeSet()
+                        .addAttribute(R.attr.cellsNumber, number)
+                        .build());
+                fail("cellsNumber " + number + " accepted");
+            } catch(IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("cellsNumber"));
+            }
+        }
+    }
+}
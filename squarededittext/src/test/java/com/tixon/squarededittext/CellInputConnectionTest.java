@@ -0,0 +1,138 @@
+package com.tixon.squarededittext;
+
+import android.view.KeyEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.inputmethod.BaseInputConnection;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.ExtractedText;
+import android.view.inputmethod.ExtractedTextRequest;
+import android.view.inputmethod.InputConnection;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class CellInputConnectionTest {
+    private LoginEditText editText;
+    private InputConnection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        editText = new LoginEditText(RuntimeEnvironment.application);
+        editText.setLayoutParams(new ViewGroup.LayoutParams(480, 64));
+        editText.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(64, View.MeasureSpec.EXACTLY));
+        editText.layout(0, 0, 480, 64);
+        connection = editText.onCreateInputConnection(new EditorInfo());
+    }
+
+    @Test
+    public void commitText_typesSymbols() throws Exception {
+        connection.commitText("1", 1);
+        connection.commitText("2", 1);
+        assertEquals("12", editText.input.text().toString());
+        assertEquals("12", editText.getText().toString());
+        assertEquals(2, editText.cursorCell());
+    }
+
+    @Test
+    public void deleteSurroundingText_selectsAndDeletesSymbols() throws Exception {
+        connection.commitText("12", 1);
+
+        connection.deleteSurroundingText(1, 0);
+        assertEquals("12", editText.input.text().toString());
+        assertEquals(1, editText.cursorCell());
+
+        connection.deleteSurroundingText(1, 0);
+        assertEquals("1", editText.input.text().toString());
+        assertEquals("1", editText.getText().toString());
+    }
+
+    @Test
+    public void keyEvents_typeAndDeleteSymbols() throws Exception {
+        connection.sendKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_7));
+        connection.sendKeyEvent(new KeyEvent(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_7));
+        assertEquals("7", editText.input.text().toString());
+
+        connection.sendKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_ENTER));
+        assertEquals("7", editText.getText().toString());
+
+        connection.sendKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DEL));
+        connection.sendKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DEL));
+        assertEquals(0, editText.input.text().length());
+    }
+
+    @Test
+    public void typingFinished_isNotifiedOnce() throws Exception {
+        final int[] finished = new int[1];
+        editText.setTypingFinishedListener(new TypingFinishedListener() {
+            @Override
+            public void onTypingFinished() {
+                finished[0]++;
+            }
+        });
+        connection.commitText("12345678", 1);
+        assertEquals("12345678", editText.getText().toString());
+        assertEquals(1, finished[0]);
+    }
+
+    @Test
+    public void editorInfo_disablesExtractedTextEditor() throws Exception {
+        EditorInfo info = new EditorInfo();
+        editText.onCreateInputConnection(info);
+        assertEquals(EditorInfo.IME_FLAG_NO_EXTRACT_UI, info.imeOptions & EditorInfo.IME_FLAG_NO_EXTRACT_UI);
+        assertEquals(editText.getInputType(), info.inputType);
+        assertEquals(0, info.initialSelStart);
+    }
+
+    @Test
+    public void keystrokes_moveSelectionSeenByKeyboard() throws Exception {
+        connection.commitText("12", 1);
+        assertExtracted("12", 2);
+
+        //the first deleting only selects the last symbol, Editable doesn't change
+        connection.deleteSurroundingText(1, 0);
+        assertExtracted("12", 2);
+        connection.deleteSurroundingText(1, 0);
+        assertExtracted("1", 1);
+
+        //typed symbol replaces the selected one
+        connection.commitText("2345678", 1);
+        assertExtracted("2345678", 7);
+
+        //the last symbol of filled cells is selected and kept out of Editable
+        connection.commitText("9", 1);
+        assertExtracted("23456789", 8);
+        editText.setActivated(true);
+        assertExtracted("2345678", 7);
+        connection.commitText("1", 1);
+        assertExtracted("23456781", 8);
+    }
+
+    @Test
+    public void rewritingComposingText_finishesComposing() throws Exception {
+        connection.commitText("12", 1);
+        connection.deleteSurroundingText(1, 0);
+
+        //composed symbol replaces the selected one, so Editable is rewritten
+        connection.setComposingText("5", 1);
+        assertEquals("15", editText.getText().toString());
+        assertEquals(-1, BaseInputConnection.getComposingSpanStart(editText.getText()));
+        assertExtracted("15", 2);
+    }
+
+    private void assertExtracted(String text, int selection) {
+        ExtractedText extracted = connection.getExtractedText(new ExtractedTextRequest(), 0);
+        assertEquals(text, extracted.text.toString());
+        assertEquals(selection, extracted.selectionStart);
+        assertEquals(selection, extracted.selectionEnd);
+    }
+}
@@ -0,0 +1,53 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+import android.graphics.Canvas;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * CodeInputView against LoginEditText: retained memory per instance, and allocations of
+ * handling and drawing a keystroke, which CodeInputView does without TextView
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class CodeInputBenchmarkTest {
+    private static final int CELLS = 8;
+    private static final int KEYSTROKES = 200;
+
+    @Test
+    public void retainedBytesPerInstance_lessThanLoginEditText() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        long editText = RetainedBytes.of(TestViews.loginEditText(CELLS),
+                TestViews.loginEditText(CELLS), context);
+        long view = RetainedBytes.of(TestViews.codeInputView(CELLS),
+                TestViews.codeInputView(CELLS), context);
+        assertTrue(view + " vs " + editText + " bytes per instance", view < editText);
+    }
+
+    @Test
+    public void keystrokeFrames_doNotAllocate() throws Exception {
+        final CodeInputView view = TestViews.codeInputView(CELLS);
+        final Canvas canvas = new DiscardingCanvas();
+        final int[] keystroke = new int[1];
+        long allocated = Allocations.bytes(KEYSTROKES, new Runnable() {
+            @Override
+            public void run() {
+                //type symbols until cells are full, then delete them, drawing after each keystroke
+                if((keystroke[0]++ / CELLS) % 2 == 0) {
+                    view.commitSymbol('7');
+                } else {
+                    view.deleteSymbols(1);
+                }
+                view.onDraw(canvas);
+            }
+        });
+        assertEquals(0, allocated);
+    }
+}
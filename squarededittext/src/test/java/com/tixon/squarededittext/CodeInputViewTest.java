@@ -0,0 +1,203 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Rect;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.text.InputType;
+import android.view.KeyEvent;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class CodeInputViewTest {
+    private static final int VIEW_ID = 1;
+
+    private CodeInputView view;
+    private InputConnection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        view = TestViews.codeInputView(4);
+        connection = view.onCreateInputConnection(new EditorInfo());
+    }
+
+    @Test
+    public void view_isTextEditor() throws Exception {
+        assertTrue(view.onCheckIsTextEditor());
+        view.setInputType(InputType.TYPE_CLASS_NUMBER);
+        EditorInfo info = new EditorInfo();
+        view.onCreateInputConnection(info);
+        assertEquals(InputType.TYPE_CLASS_NUMBER, info.inputType);
+    }
+
+    @Test
+    public void oneTimeCodeStyle_acceptsDigitsOnly() throws Exception {
+        CodeInputView styled = new CodeInputView(RuntimeEnvironment.application,
+                Robolectric.buildAttributeSet()
+                        .setStyleAttribute("@style/LoginEditText.OneTimeCode")
+                        .build());
+        assertEquals(InputType.TYPE_CLASS_NUMBER, styled.getInputType());
+        EditorInfo info = new EditorInfo();
+        styled.onCreateInputConnection(info);
+        assertEquals(InputType.TYPE_CLASS_NUMBER, info.inputType);
+        styled.setCode("ab12");
+        assertEquals("12", styled.getCode().toString());
+    }
+
+    @Test
+    public void emptyCode_clearsCells() throws Exception {
+        view.setCode("123");
+        view.setCode("");
+        assertEquals("", view.getCode().toString());
+        assertEquals(0, view.input.cursorCell());
+    }
+
+    @Test
+    public void commitText_typesSymbols() throws Exception {
+        connection.commitText("1", 1);
+        connection.commitText("23", 1);
+        assertEquals("123", view.getCode().toString());
+        assertEquals("23", connection.getTextBeforeCursor(2, 0).toString());
+        assertEquals("", connection.getTextAfterCursor(2, 0).toString());
+    }
+
+    @Test
+    public void deleteSurroundingText_deletesSymbols() throws Exception {
+        connection.commitText("123", 1);
+        connection.deleteSurroundingText(1, 0);
+        connection.deleteSurroundingText(1, 0);
+        assertEquals("12", view.getCode().toString());
+    }
+
+    @Test
+    public void keyEvents_typeAndDelete() throws Exception {
+        connection.sendKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_7));
+        connection.sendKeyEvent(new KeyEvent(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_7));
+        view.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_8));
+        view.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_8));
+        assertEquals("78", view.getCode().toString());
+
+        //enter does nothing, but is consumed
+        assertTrue(view.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_ENTER)));
+        assertEquals("78", view.getCode().toString());
+
+        view.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DEL));
+        view.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DEL));
+        assertEquals("7", view.getCode().toString());
+    }
+
+    @Test
+    public void setCode_notifiesOnce() throws Exception {
+        final int[] finished = new int[1];
+        view.setTypingFinishedListener(new TypingFinishedListener() {
+            @Override
+            public void onTypingFinished() {
+                finished[0]++;
+            }
+        });
+        view.setCode("12-34");
+        assertEquals("1234", view.getCode().toString());
+        assertEquals(1, finished[0]);
+        view.clearCode();
+        assertEquals("", view.getCode().toString());
+    }
+
+    @Test
+    public void typedSymbol_invalidatesOnlyChangedCells() throws Exception {
+        view.commitSymbol('1');
+        Rect expected = new Rect();
+        view.renderer.getCellsRect(0, 1, expected);
+        assertEquals(expected, view.dirtyRect);
+    }
+
+    @Test
+    public void frame_drawnAsLoginEditText() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(4);
+        RecordingCanvas expected = new RecordingCanvas();
+        RecordingCanvas actual = new RecordingCanvas();
+        for(int i = 0; i < 4; i++) {
+            editText.commitSymbol('5');
+            view.commitSymbol('5');
+            expected.reset();
+            actual.reset();
+            editText.drawCells(expected);
+            view.onDraw(actual);
+            assertEquals(expected.ops.toString(), actual.ops.toString());
+        }
+        assertSame(editText.renderer.style, view.renderer.style);
+    }
+
+    @Test
+    public void wrapContent_fitsSquares() throws Exception {
+        CodeInputView view = new CodeInputView(RuntimeEnvironment.application);
+        view.measure(View.MeasureSpec.makeMeasureSpec(TestViews.WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        CellGeometry g = view.renderer.style.geometry;
+        assertTrue(view.getMeasuredHeight() >= g.bottom[0]);
+        assertTrue(view.getMeasuredHeight() < g.bottom[0] + g.top[0] + 2);
+    }
+
+    @Test
+    public void measuring_keepsStyleUntilSizeChanges() throws Exception {
+        CellStyle style = view.renderer.style;
+        int[] widths = {TestViews.WIDTH / 2, TestViews.WIDTH * 2, TestViews.WIDTH};
+        int[] heights = new int[widths.length];
+        for(int i = 0; i < widths.length; i++) {
+            view.measure(View.MeasureSpec.makeMeasureSpec(widths[i], View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+            heights[i] = view.getMeasuredHeight();
+            assertSame(style, view.renderer.style);
+        }
+        assertTrue(heights[0] < heights[2]);
+        assertTrue(heights[1] > heights[2]);
+
+        //style for new size fits measured height
+        view.layout(0, 0, widths[1], heights[1]);
+        assertNotSame(style, view.renderer.style);
+        CellGeometry g = view.renderer.style.geometry;
+        assertEquals((int) Math.ceil(g.bottom[0] + view.renderer.style.backgroundPaint.getStrokeWidth()),
+                heights[1]);
+    }
+
+    @Test
+    public void savedState_restoresSymbolsAndSelection() throws Exception {
+        view.setId(VIEW_ID);
+        view.setCode("123");
+        view.deleteSymbols(1);
+        SparseArray<Parcelable> container = new SparseArray<>();
+        view.saveHierarchyState(container);
+
+        //state goes through parcel as when activity is recreated
+        Parcel parcel = Parcel.obtain();
+        parcel.writeParcelable(container.get(VIEW_ID), 0);
+        parcel.setDataPosition(0);
+        Parcelable state = parcel.readParcelable(CodeInputView.class.getClassLoader());
+        parcel.recycle();
+        container.put(VIEW_ID, state);
+
+        CodeInputView restored = TestViews.codeInputView(4);
+        restored.setId(VIEW_ID);
+        restored.restoreHierarchyState(container);
+        assertEquals("123", restored.getCode().toString());
+        assertEquals(CellInputStateMachine.State.SELECTED, restored.input.state());
+        assertEquals(2, restored.input.cursorCell());
+
+        //the next symbol replaces the selected one
+        restored.commitSymbol('4');
+        assertEquals("124", restored.getCode().toString());
+    }
+}
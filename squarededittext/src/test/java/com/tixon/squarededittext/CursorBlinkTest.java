@@ -0,0 +1,88 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Rect;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class CursorBlinkTest {
+    private LoginEditText editText;
+
+    @Before
+    public void setUp() throws Exception {
+        editText = TestViews.attach(TestViews.loginEditText(4));
+        editText.setCursorBlinking(true);
+        editText.requestFocus();
+    }
+
+    @Test
+    public void blink_invalidatesOnlyCursorCell() throws Exception {
+        editText.commitSymbol('1');
+        editText.dirtyRect.setEmpty();
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(LoginEditText.CURSOR_BLINK_MS);
+        Rect expected = new Rect();
+        editText.getCellsRect(1, 1, expected);
+        assertEquals(expected, editText.dirtyRect);
+        assertEquals(0, cursorOps());
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(LoginEditText.CURSOR_BLINK_MS);
+        assertEquals(1, cursorOps());
+    }
+
+    @Test
+    public void typing_showsCursor() throws Exception {
+        Robolectric.getForegroundThreadScheduler().advanceBy(LoginEditText.CURSOR_BLINK_MS);
+        assertEquals(0, cursorOps());
+        editText.commitSymbol('1');
+        assertEquals(1, cursorOps());
+    }
+
+    @Test
+    public void hiddenView_stopsBlinking() throws Exception {
+        editText.setVisibility(View.GONE);
+        editText.dirtyRect.setEmpty();
+        Robolectric.getForegroundThreadScheduler().advanceBy(LoginEditText.CURSOR_BLINK_MS * 4);
+        assertTrue(editText.dirtyRect.isEmpty());
+        assertEquals(1, cursorOps());
+    }
+
+    @Test
+    public void filledCells_stopBlinking() throws Exception {
+        //focus stays in view after typing is finished
+        editText.setTypingFinishedListener(new TypingFinishedListener() {
+            @Override
+            public void onTypingFinished() {
+            }
+        });
+        //cursor of TextView is hidden, so only cells may post blinks
+        editText.setTextLayoutBypassed(true);
+        editText.setCode("1234");
+        assertTrue(editText.isFocused());
+        assertEquals(-1, editText.cursorCell());
+        //nothing is posted again after the last blink
+        Robolectric.getForegroundThreadScheduler().advanceBy(LoginEditText.CURSOR_BLINK_MS * 4);
+        assertEquals(0, Robolectric.getForegroundThreadScheduler().size());
+    }
+
+    private int cursorOps() {
+        RecordingCanvas canvas = new RecordingCanvas();
+        editText.drawCells(canvas);
+        int cursors = 0;
+        for(RecordingCanvas.Op op : canvas.ops(RecordingCanvas.Type.RECT)) {
+            if(op.paint == editText.renderer.style.cursorPaint) {
+                cursors++;
+            }
+        }
+        return cursors;
+    }
+}
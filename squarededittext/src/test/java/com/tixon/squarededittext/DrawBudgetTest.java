@@ -0,0 +1,127 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Canvas;
+import android.widget.EditText;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Number of draw operations per frame is a performance budget:
+ * squares are one operation, every symbol is one operation and cursor is one operation.
+ * Raise the budget only together with a reason in commit message.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class DrawBudgetTest {
+    private static final int[] CELLS = {1, 4, 8, 16, 32};
+    private static final int KEYSTROKES = 100;
+
+    /**
+     * Operations allowed per frame besides one for each symbol
+     */
+    static final int FIXED_OPS_BUDGET = 2;
+
+    @Test
+    public void frame_staysInBudget() throws Exception {
+        for(int cells : CELLS) {
+            assertFrames(TestViews.loginEditText(cells), cells);
+        }
+    }
+
+    @Test
+    public void frameWithBackgroundCache_staysInBudget() throws Exception {
+        for(int cells : CELLS) {
+            LoginEditText editText = TestViews.loginEditText(cells);
+            editText.setBackgroundCacheEnabled(true);
+            assertFrames(editText, cells);
+        }
+    }
+
+    @Test
+    public void groupedFrame_staysInBudget() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(16);
+        editText.setCellGroups("4-4-4-4");
+        editText.setCellGroupDashes(true);
+        assertFrames(editText, 16);
+    }
+
+    /**
+     * Every keystroke changes Editable once, and framework allocates for that change
+     * in its watchers and undo filter, Robolectric also creates a new AccessibilityManager.
+     * So keystroke with its frame may allocate only as much as the same change of Editable
+     * of a plain EditText, cells, Editable sync and drawing add nothing
+     */
+    @Test
+    public void keystrokeFrames_allocateOnlyForEditable() throws Exception {
+        final EditText plain = TestViews.layout(new EditText(RuntimeEnvironment.application),
+                TestViews.WIDTH, TestViews.HEIGHT);
+        final int[] plainKeystroke = new int[1];
+        long editableBudget = Allocations.bytes(KEYSTROKES, new Runnable() {
+            @Override
+            public void run() {
+                clearContentObservers();
+                if(typing(plainKeystroke[0]++)) {
+                    plain.getText().append('7');
+                } else {
+                    plain.getText().delete(plain.length() - 1, plain.length());
+                }
+            }
+        });
+
+        for(boolean backgroundCache : new boolean[] {false, true}) {
+            final LoginEditText editText = TestViews.loginEditText(8);
+            editText.setVisibleCellsNumber(4);
+            editText.setBackgroundCacheEnabled(backgroundCache);
+            final Canvas canvas = new DiscardingCanvas();
+            final int[] keystroke = new int[1];
+            long allocated = Allocations.bytes(KEYSTROKES, new Runnable() {
+                @Override
+                public void run() {
+                    clearContentObservers();
+                    if(typing(keystroke[0]++)) {
+                        editText.commitSymbol('7');
+                    } else {
+                        editText.deleteSymbols(1);
+                    }
+                    editText.drawCells(canvas);
+                }
+            });
+            assertTrue("background cache " + backgroundCache + ": " + allocated + " bytes, budget is "
+                    + editableBudget, allocated <= editableBudget);
+        }
+    }
+
+    /**
+     * Symbols are typed until 8 cells are full, then deleted
+     */
+    private static boolean typing(int keystroke) {
+        return (keystroke / 8) % 2 == 0;
+    }
+
+    /**
+     * AccessibilityManager created for each change of text registers content observers,
+     * without clearing them every keystroke would be slower than the previous one
+     */
+    private static void clearContentObservers() {
+        Shadows.shadowOf(RuntimeEnvironment.application.getContentResolver()).clearContentObservers();
+    }
+
+    private static void assertFrames(LoginEditText editText, int cells) {
+        RecordingCanvas canvas = new RecordingCanvas();
+        for(int length = 0; length <= cells; length++) {
+            canvas.reset();
+            editText.drawCells(canvas);
+            int budget = FIXED_OPS_BUDGET + length;
+            assertTrue("cells = " + cells + ", symbols = " + length + ": " + canvas.ops.size()
+                    + " ops, budget is " + budget + "\n" + canvas.ops, canvas.ops.size() <= budget);
+            editText.commitSymbol('7');
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts work done by EditText for each keystroke: Editable must be changed in place,
+ * without setText which creates a new Editable, re-lays out text and restarts keyboard input
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class EditableSyncTest {
+    private CountingEditText editText;
+    private int textChanges;
+
+    @Before
+    public void setUp() throws Exception {
+        editText = new CountingEditText(RuntimeEnvironment.application);
+        editText.setLayoutParams(new ViewGroup.LayoutParams(480, 64));
+        editText.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(64, View.MeasureSpec.EXACTLY));
+        editText.layout(0, 0, 480, 64);
+        editText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                textChanges++;
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+            }
+        });
+    }
+
+    @Test
+    public void keystrokes_changeEditableInPlace() throws Exception {
+        Editable editable = editText.getText();
+        editText.layoutRequests = 0;
+
+        //typing: one change made by keyboard
+        editable.append("1");
+        editable.append("2");
+        assertEquals(2, textChanges);
+
+        //deleting selects the last symbol: change made by keyboard and one restoring change
+        editable.delete(1, 2);
+        assertEquals("12", editable.toString());
+        assertEquals(4, textChanges);
+
+        //replacing selected symbol: change made by keyboard and one replacing change
+        editable.append("5");
+        assertEquals("15", editable.toString());
+        assertEquals(6, textChanges);
+
+        assertSame(editable, editText.getText());
+        assertEquals(0, editText.layoutRequests);
+    }
+
+    @Test
+    public void replacedSymbol_typedInstead() throws Exception {
+        Editable editable = editText.getText();
+        editable.append("12");
+        editable.replace(1, 2, "5");
+        assertEquals("15", editable.toString());
+        assertEquals("15", editText.input.text().toString());
+        assertEquals(2, editText.cursorCell());
+
+        //the last symbol is selected by deleting, replacing it keeps the first one
+        editable.delete(1, 2);
+        assertEquals(CellInputStateMachine.State.SELECTED, editText.input.state());
+        editable.replace(1, 2, "7");
+        assertEquals("17", editable.toString());
+        assertEquals("17", editText.input.text().toString());
+        assertEquals(CellInputStateMachine.State.TYPING, editText.input.state());
+        assertEquals(2, editText.cursorCell());
+    }
+
+    @Test
+    public void clearedText_clearsCells() throws Exception {
+        editText.setCode("1234");
+        editText.setText("");
+        assertEquals("", editText.input.text().toString());
+        assertEquals(0, editText.cursorCell());
+
+        editText.setCode("1234");
+        editText.getText().clear();
+        assertEquals("", editText.input.text().toString());
+
+        //the next keystroke doesn't bring old symbols back
+        editText.getText().append("5");
+        assertEquals("5", editText.getText().toString());
+        assertEquals("5", editText.input.text().toString());
+    }
+
+    @Test
+    public void deletedSymbols_removedFromCells() throws Exception {
+        Editable editable = editText.getText();
+        editable.append("1234");
+        editable.delete(1, 4);
+        assertEquals("1", editable.toString());
+        assertEquals("1", editText.input.text().toString());
+        assertEquals(1, editText.cursorCell());
+    }
+
+    private static class CountingEditText extends LoginEditText {
+        int layoutRequests;
+
+        CountingEditText(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void requestLayout() {
+            layoutRequests++;
+            super.requestLayout();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class GlyphAtlasTest {
+    private static final String DIGITS = "0123456789";
+
+    @Test
+    public void atlasSymbols_drawnAsBitmaps() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(4);
+        editText.setGlyphAtlasSymbols(DIGITS);
+        editText.commitSymbol('1');
+        editText.commitSymbol('a');
+
+        RecordingCanvas canvas = new RecordingCanvas();
+        editText.drawCells(canvas);
+        List<RecordingCanvas.Op> bitmaps = canvas.ops(RecordingCanvas.Type.BITMAP);
+        assertEquals(1, bitmaps.size());
+        //symbol which is not in atlas falls back to text
+        List<RecordingCanvas.Op> texts = canvas.ops(RecordingCanvas.Type.TEXT);
+        assertEquals(1, texts.size());
+        assertEquals("a", texts.get(0).text);
+
+        //glyph is centered in its cell
+        RecordingCanvas.Op glyph = bitmaps.get(0);
+        assertEquals(editText.renderer.style.geometry.textCenterX[0], (glyph.left + glyph.right) / 2.0f, 1.0f);
+        editText.setGlyphAtlasSymbols(null);
+    }
+
+    @Test
+    public void glyphs_placedOncePerStyle() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(4);
+        editText.setGlyphAtlasSymbols(DIGITS);
+        editText.commitSymbol('1');
+        editText.commitSymbol('2');
+        for(int width : new int[] {TestViews.WIDTH, TestViews.WIDTH / 2}) {
+            TestViews.layout(editText, width, TestViews.HEIGHT);
+            RecordingCanvas canvas = new RecordingCanvas();
+            editText.drawCells(canvas);
+            Rect[] placed = editText.renderer.glyphDst;
+            Rect first = placed[0];
+            editText.drawCells(canvas);
+            assertSame(first, editText.renderer.glyphDst[0]);
+
+            List<RecordingCanvas.Op> bitmaps = canvas.ops(RecordingCanvas.Type.BITMAP);
+            assertEquals(4, bitmaps.size());
+            for(int i = 0; i < 2; i++) {
+                RecordingCanvas.Op glyph = bitmaps.get(i);
+                assertEquals(placed[i], new Rect((int) glyph.left, (int) glyph.top,
+                        (int) glyph.right, (int) glyph.bottom));
+                assertEquals(editText.renderer.style.geometry.textCenterX[i],
+                        (glyph.left + glyph.right) / 2.0f, 1.0f);
+            }
+        }
+        editText.setGlyphAtlasSymbols(null);
+    }
+
+    @Test
+    public void atlas_sharedBySameStyle() throws Exception {
+        LoginEditText first = TestViews.loginEditText(4);
+        LoginEditText second = TestViews.loginEditText(4);
+        first.setGlyphAtlasSymbols(DIGITS);
+        second.setGlyphAtlasSymbols(DIGITS);
+        first.drawCells(new RecordingCanvas());
+        second.drawCells(new RecordingCanvas());
+        assertNotNull(first.renderer.glyphAtlas);
+        assertSame(first.renderer.glyphAtlas, second.renderer.glyphAtlas);
+        first.setGlyphAtlasSymbols(null);
+        second.setGlyphAtlasSymbols(null);
+    }
+
+    @Test
+    public void unusedAtlases_evicted() throws Exception {
+        Paint paint = new Paint();
+        GlyphAtlas[] atlases = new GlyphAtlas[10];
+        for(int i = 0; i < atlases.length; i++) {
+            paint.setTextSize(10 + i);
+            atlases[i] = GlyphAtlas.acquire(DIGITS, paint);
+        }
+        int used = GlyphAtlas.size();
+        for(GlyphAtlas atlas : atlases) {
+            GlyphAtlas.release(atlas);
+        }
+        assertTrue(GlyphAtlas.size() < used);
+        assertTrue(atlases[0].bitmap.isRecycled());
+        assertFalse(atlases[atlases.length - 1].bitmap.isRecycled());
+    }
+
+    @Test
+    public void frame_staysInBudget() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(8);
+        editText.setGlyphAtlasSymbols(DIGITS);
+        RecordingCanvas canvas = new RecordingCanvas();
+        for(int i = 0; i < 8; i++) {
+            editText.commitSymbol((char) ('0' + i));
+            canvas.reset();
+            editText.drawCells(canvas);
+            assertTrue(canvas.ops.size() <= i + 1 + DrawBudgetTest.FIXED_OPS_BUDGET);
+        }
+        editText.setGlyphAtlasSymbols(null);
+    }
+}
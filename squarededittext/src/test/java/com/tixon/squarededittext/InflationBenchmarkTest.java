@@ -0,0 +1,54 @@
+package com.tixon.squarededittext;
+
+import android.util.AttributeSet;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Inflation of views with the same style reads attributes once. Parses of attributes are
+ * counted, not timed, so the result is the same on every machine
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class InflationBenchmarkTest {
+    private static final int INFLATIONS = 500;
+
+    @Test
+    public void sameStyle_parsedOnce() throws Exception {
+        AttributeSet attrs = styled();
+        LoginEditText first = new LoginEditText(RuntimeEnvironment.application, attrs);
+        int parses = CellConfig.parses;
+        for(int i = 0; i < INFLATIONS; i++) {
+            LoginEditText editText = new LoginEditText(RuntimeEnvironment.application, attrs);
+            assertEquals(6, editText.input.text().capacity());
+        }
+        assertEquals(parses, CellConfig.parses);
+        assertEquals(6, first.input.text().capacity());
+    }
+
+    @Test
+    public void ownAttributes_parsedForEachView() throws Exception {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.cellsNumber, "4")
+                .build();
+        int parses = CellConfig.parses;
+        for(int i = 0; i < 3; i++) {
+            LoginEditText editText = new LoginEditText(RuntimeEnvironment.application, attrs);
+            assertEquals(4, editText.input.text().capacity());
+        }
+        assertEquals(parses + 3, CellConfig.parses);
+    }
+
+    private static AttributeSet styled() {
+        return Robolectric.buildAttributeSet()
+                .setStyleAttribute("@style/LoginEditText.OneTimeCode")
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+import android.widget.EditText;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Views of the same style share paints, geometry and listeners, so a view itself
+ * keeps only its symbols and cursor besides what EditText has
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class InstanceMemoryTest {
+    private static final int INSTANCES = 1000;
+
+    /**
+     * Bytes retained by an instance besides what EditText retains: symbols, cursor,
+     * buffers and listeners. Raise the budget only together with a reason in commit message
+     */
+    private static final long BYTES_PER_INSTANCE_BUDGET = 2 * 1024;
+
+    @Test
+    public void instances_shareStyle() throws Exception {
+        List<LoginEditText> views = create(INSTANCES);
+        CellStyle style = views.get(0).renderer.style;
+        for(LoginEditText view : views) {
+            assertSame(style, view.renderer.style);
+        }
+    }
+
+    @Test
+    public void retainedBytesPerInstance_inBudget() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        long editText = RetainedBytes.of(new EditText(context), new EditText(context), context);
+        long loginEditText = RetainedBytes.of(TestViews.loginEditText(8), TestViews.loginEditText(8),
+                context);
+        long perInstance = loginEditText - editText;
+        assertTrue(perInstance + " bytes per instance besides EditText",
+                perInstance < BYTES_PER_INSTANCE_BUDGET);
+    }
+
+    private static List<LoginEditText> create(int count) {
+        List<LoginEditText> views = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            views.add(TestViews.loginEditText(8));
+        }
+        return views;
+    }
+}
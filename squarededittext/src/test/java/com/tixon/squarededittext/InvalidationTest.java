@@ -0,0 +1,175 @@
+package com.tixon.squarededittext;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.text.Editable;
+import android.view.ViewParent;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.ReflectionHelpers;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks what parent of view is asked to redraw, in both modes of text layout and for both
+ * paths of input: Editable changed by keyboard and symbols committed by input connection
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class InvalidationTest {
+    private static final boolean[] BYPASSED = {false, true};
+
+    /**
+     * Parent which records areas of children asked to redraw
+     */
+    private static class RecordingParent extends FrameLayout {
+        final Rect invalidated = new Rect();
+
+        RecordingParent(Context context) {
+            super(context);
+        }
+
+        @Override
+        public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+            invalidated.union(dirty);
+            return super.invalidateChildInParent(location, dirty);
+        }
+    }
+
+    private LoginEditText editText;
+    private RecordingParent parent;
+
+    @Test
+    public void typing_invalidatesSymbolAndNextCell() throws Exception {
+        for(boolean bypassed : BYPASSED) {
+            setUp(bypassed);
+            assertEquals(cells(0, 1), invalidatedBy(append("1")));
+            assertEquals(cells(1, 2), invalidatedBy(commit('2')));
+            assertEquals(cells(2, 3), invalidatedBy(append("3")));
+        }
+    }
+
+    @Test
+    public void deleting_invalidatesOldAndNewCursorCells() throws Exception {
+        for(boolean bypassed : BYPASSED) {
+            setUp(bypassed);
+            editText.getText().append("12");
+
+            //the first deleting only selects the last symbol with cursor
+            assertEquals(cells(1, 2), invalidatedBy(deleteLast()));
+            assertEquals("12", editText.getText().toString());
+            assertEquals(1, editText.cursorCell());
+
+            assertEquals(cells(0, 1), invalidatedBy(deleteLast()));
+            assertEquals(0, editText.cursorCell());
+
+            //deleting of selected symbol keeps cursor in its cell
+            editText.commitSymbol('1');
+            editText.deleteSymbols(1);
+            assertEquals(cells(0, 0), invalidatedBy(delete()));
+            assertEquals("", editText.getText().toString());
+        }
+    }
+
+    @Test
+    public void replacing_invalidatesReplacedSymbolAndNextCell() throws Exception {
+        for(boolean bypassed : BYPASSED) {
+            setUp(bypassed);
+            editText.getText().append("12");
+            deleteLast().run();
+
+            assertEquals(cells(1, 2), invalidatedBy(append("5")));
+            assertEquals("15", editText.getText().toString());
+            assertEquals(2, editText.cursorCell());
+        }
+    }
+
+    @Test
+    public void changedAppearance_invalidatesWholeView() throws Exception {
+        for(boolean bypassed : BYPASSED) {
+            setUp(bypassed);
+            editText.getText().append("1");
+            markDrawn();
+            parent.invalidated.setEmpty();
+            editText.setCellGroups("2-2");
+            assertEquals(new Rect(0, 0, TestViews.WIDTH, TestViews.HEIGHT), parent.invalidated);
+        }
+    }
+
+    private void setUp(boolean bypassed) {
+        parent = new RecordingParent(RuntimeEnvironment.application);
+        editText = new LoginEditText(RuntimeEnvironment.application);
+        editText.setCellsNumber(4);
+        editText.setTextLayoutBypassed(bypassed);
+        parent.addView(editText, new FrameLayout.LayoutParams(TestViews.WIDTH, TestViews.HEIGHT));
+        TestViews.layout(parent, TestViews.WIDTH, TestViews.HEIGHT);
+        TestViews.attach(parent);
+    }
+
+    /**
+     * @return union of areas invalidated by the change made after view is drawn
+     */
+    private Rect invalidatedBy(Runnable change) {
+        markDrawn();
+        parent.invalidated.setEmpty();
+        change.run();
+        return new Rect(parent.invalidated);
+    }
+
+    /**
+     * View is drawn on screen and the next invalidation reaches parent. Drawing in tests
+     * doesn't set this flag, so it is set as the drawing pass would do it
+     */
+    private void markDrawn() {
+        int flags = ReflectionHelpers.getField(editText, "mPrivateFlags");
+        ReflectionHelpers.setField(editText, "mPrivateFlags", flags | 0x20 /*PFLAG_DRAWN*/);
+    }
+
+    private Runnable append(final String text) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                editText.getText().append(text);
+            }
+        };
+    }
+
+    private Runnable commit(final char symbol) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                editText.commitSymbol(symbol);
+            }
+        };
+    }
+
+    private Runnable delete() {
+        return new Runnable() {
+            @Override
+            public void run() {
+                editText.deleteSymbols(1);
+            }
+        };
+    }
+
+    private Runnable deleteLast() {
+        return new Runnable() {
+            @Override
+            public void run() {
+                Editable editable = editText.getText();
+                editable.delete(editable.length() - 1, editable.length());
+            }
+        };
+    }
+
+    private Rect cells(int first, int last) {
+        Rect rect = new Rect();
+        editText.getCellsRect(first, last, rect);
+        return rect;
+    }
+}
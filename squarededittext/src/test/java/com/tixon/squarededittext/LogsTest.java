@@ -0,0 +1,75 @@
+package com.tixon.squarededittext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class LogsTest {
+    private final List<String> messages = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        Logs.setLogger(new Logger() {
+            @Override
+            public void log(int priority, String tag, String message) {
+                messages.add(message);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Logs.setLogger(null);
+        Logs.setSecretsRevealed(false);
+    }
+
+    @Test
+    public void enteredCode_redactedByDefault() throws Exception {
+        typeCode();
+        String finished = finishedMessage();
+        assertFalse(finished, finished.contains("1234"));
+        assertTrue(finished, finished.contains("4 symbols"));
+    }
+
+    @Test
+    public void enteredCode_loggedWhenRevealed() throws Exception {
+        Logs.setSecretsRevealed(true);
+        typeCode();
+        assertTrue(finishedMessage().contains("1234"));
+    }
+
+    @Test
+    public void nullLogger_dropsMessages() throws Exception {
+        Logs.setLogger(null);
+        typeCode();
+        assertTrue(messages.isEmpty());
+    }
+
+    private void typeCode() {
+        LoginEditText editText = TestViews.loginEditText(4);
+        editText.getText().append("1");
+        editText.getText().append("2");
+        editText.getText().append("3");
+        editText.getText().append("4");
+    }
+
+    private String finishedMessage() {
+        for(String message : messages) {
+            if(message.startsWith("Typing finished")) {
+                return message;
+            }
+        }
+        fail("no message about finished typing in " + messages);
+        return null;
+    }
+}
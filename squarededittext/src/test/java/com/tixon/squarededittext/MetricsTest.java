@@ -0,0 +1,96 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class MetricsTest {
+    private LoginEditText editText;
+    private RecordingListener listener;
+
+    @Before
+    public void setUp() throws Exception {
+        editText = TestViews.loginEditText(4);
+        listener = new RecordingListener();
+        editText.setMetricsListener(listener);
+    }
+
+    @Test
+    public void keystroke_reportedOnce() throws Exception {
+        editText.getText().append("1");
+        assertEquals(1, listener.keystrokes);
+        assertTrue(listener.handleNanos >= 0);
+        //Editable already has typed symbol, nothing comes back to watcher
+        assertEquals(0, listener.reentries);
+    }
+
+    @Test
+    public void committedSymbol_reportsReentry() throws Exception {
+        editText.commitSymbol('1');
+        assertEquals(1, listener.keystrokes);
+        //syncing Editable with cells comes back to watcher once
+        assertEquals(1, listener.reentries);
+    }
+
+    @Test
+    public void invalidatedCells_reported() throws Exception {
+        editText.commitSymbol('1');
+        assertEquals(1, listener.dirty.size());
+        Rect expected = new Rect();
+        editText.getCellsRect(0, 1, expected);
+        assertEquals(expected, listener.dirty.get(0));
+    }
+
+    @Test
+    public void frame_reported() throws Exception {
+        editText.onDraw(new Canvas());
+        assertEquals(1, listener.frames);
+    }
+
+    @Test
+    public void disabledListener_reportsNothing() throws Exception {
+        editText.setMetricsListener(null);
+        editText.commitSymbol('1');
+        editText.onDraw(new Canvas());
+        assertEquals(0, listener.keystrokes);
+        assertEquals(0, listener.frames);
+        assertTrue(listener.dirty.isEmpty());
+    }
+
+    private static class RecordingListener implements MetricsListener {
+        int frames;
+        int keystrokes;
+        long handleNanos = -1;
+        int reentries = -1;
+        final List<Rect> dirty = new ArrayList<>();
+
+        @Override
+        public void onFrameDrawn(long drawNanos) {
+            frames++;
+        }
+
+        @Override
+        public void onKeystrokeHandled(long handleNanos, int reentries) {
+            keystrokes++;
+            this.handleNanos = handleNanos;
+            this.reentries = reentries;
+        }
+
+        @Override
+        public void onCellsInvalidated(Rect dirty) {
+            this.dirty.add(new Rect(dirty));
+        }
+    }
+}
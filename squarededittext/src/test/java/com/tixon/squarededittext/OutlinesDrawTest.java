@@ -0,0 +1,38 @@
+package com.tixon.squarededittext;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class OutlinesDrawTest {
+    private static final int CELLS = 16;
+
+    @Test
+    public void outlines_drawnOneByOne() throws Exception {
+        LoginEditText editText = TestViews.layout(TestViews.loginEditText(CELLS), 960, 64);
+        editText.setOutlinesBatched(false);
+        RecordingCanvas canvas = new RecordingCanvas();
+        editText.drawCells(canvas);
+        //one rect per square and one for cursor
+        assertEquals(CELLS + 1, canvas.ops(RecordingCanvas.Type.RECT).size());
+        assertEquals(0, canvas.ops(RecordingCanvas.Type.LINES).size());
+    }
+
+    @Test
+    public void outlines_drawnInSingleCall() throws Exception {
+        LoginEditText editText = TestViews.layout(TestViews.loginEditText(CELLS), 960, 64);
+        editText.setOutlinesBatched(true);
+        RecordingCanvas canvas = new RecordingCanvas();
+        editText.drawCells(canvas);
+        //only cursor is drawn as rect
+        assertEquals(1, canvas.ops(RecordingCanvas.Type.RECT).size());
+        assertEquals(1, canvas.ops(RecordingCanvas.Type.LINES).size());
+        assertEquals(CELLS * CellGeometry.OUTLINE_FLOATS,
+                canvas.ops(RecordingCanvas.Type.LINES).get(0).count);
+    }
+}
@@ -0,0 +1,136 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Canvas which records draw operations instead of drawing them
+ */
+class RecordingCanvas extends Canvas {
+    enum Type {
+        RECT,
+        LINES,
+        TEXT,
+        BITMAP,
+        PATH
+    }
+
+    static class Op {
+        final Type type;
+        final float left;
+        final float top;
+        final float right;
+        final float bottom;
+        //symbols for TEXT, number of floats for LINES
+        final String text;
+        final int count;
+        final Paint paint;
+
+        Op(Type type, float left, float top, float right, float bottom, String text, int count,
+           Paint paint) {
+            this.type = type;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+            this.text = text;
+            this.count = count;
+            this.paint = paint;
+        }
+
+        @Override
+        public String toString() {
+            return type + "(" + left + ", " + top + ", " + right + ", " + bottom
+                    + (text != null ? ", " + text : "") + ")";
+        }
+    }
+
+    final List<Op> ops = new ArrayList<>();
+
+    List<Op> ops(Type type) {
+        List<Op> result = new ArrayList<>();
+        for(Op op : ops) {
+            if(op.type == type) {
+                result.add(op);
+            }
+        }
+        return result;
+    }
+
+    void reset() {
+        ops.clear();
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        ops.add(new Op(Type.RECT, left, top, right, bottom, null, 0, paint));
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        drawRect(rect.left, rect.top, rect.right, rect.bottom, paint);
+    }
+
+    @Override
+    public void drawRect(Rect rect, Paint paint) {
+        drawRect(rect.left, rect.top, rect.right, rect.bottom, paint);
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, Paint paint) {
+        ops.add(new Op(Type.LINES, 0, 0, 0, 0, null, count, paint));
+    }
+
+    @Override
+    public void drawLines(float[] pts, Paint paint) {
+        drawLines(pts, 0, pts.length, paint);
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        ops.add(new Op(Type.PATH, 0, 0, 0, 0, null, 0, paint));
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        ops.add(new Op(Type.TEXT, x, y, x, y, new String(text, index, count), count, paint));
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        drawText(text.toCharArray(), 0, text.length(), x, y, paint);
+    }
+
+    @Override
+    public void drawText(String text, int start, int end, float x, float y, Paint paint) {
+        drawText(text.toCharArray(), start, end - start, x, y, paint);
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+        drawText(text.toString(), start, end, x, y, paint);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        ops.add(new Op(Type.BITMAP, left, top, left + bitmap.getWidth(), top + bitmap.getHeight(),
+                null, 0, paint));
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        ops.add(new Op(Type.BITMAP, dst.left, dst.top, dst.right, dst.bottom, null, 0, paint));
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        ops.add(new Op(Type.BITMAP, dst.left, dst.top, dst.right, dst.bottom, null, 0, paint));
+    }
+}
@@ -0,0 +1,185 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Color;
+import android.util.AttributeSet;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class RenderingTest {
+    private static final int[] CELLS = {1, 4, 8, 16};
+    private static final float DELTA = 0.001f;
+
+    @Test
+    public void squares_matchGeometry() throws Exception {
+        for(int cells : CELLS) {
+            LoginEditText editText = TestViews.loginEditText(cells);
+            editText.setOutlinesBatched(false);
+            RecordingCanvas canvas = draw(editText);
+
+            CellGeometry g = editText.renderer.style.geometry;
+            List<RecordingCanvas.Op> rects = canvas.ops(RecordingCanvas.Type.RECT);
+            //squares and cursor in the first cell
+            assertEquals(cells + 1, rects.size());
+            for(int i = 0; i < cells; i++) {
+                RecordingCanvas.Op op = rects.get(i);
+                assertSame(editText.renderer.style.backgroundPaint, op.paint);
+                assertEquals(g.left[i], op.left, DELTA);
+                assertEquals(g.top[i], op.top, DELTA);
+                assertEquals(g.right[i], op.right, DELTA);
+                assertEquals(g.bottom[i], op.bottom, DELTA);
+                assertTrue(op.right <= TestViews.WIDTH);
+                if(i > 0) {
+                    assertTrue("cells overlap", op.left > rects.get(i - 1).right);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void symbols_drawnInsideTheirCells() throws Exception {
+        for(int cells : CELLS) {
+            LoginEditText editText = TestViews.loginEditText(cells);
+            for(int i = 0; i < cells; i++) {
+                editText.commitSymbol((char) ('0' + i % 10));
+            }
+            RecordingCanvas canvas = draw(editText);
+
+            CellGeometry g = editText.renderer.style.geometry;
+            List<RecordingCanvas.Op> texts = canvas.ops(RecordingCanvas.Type.TEXT);
+            assertEquals(cells, texts.size());
+            for(int i = 0; i < cells; i++) {
+                RecordingCanvas.Op op = texts.get(i);
+                assertSame(editText.renderer.style.textPaint, op.paint);
+                assertEquals(String.valueOf((char) ('0' + i % 10)), op.text);
+                assertEquals(g.textBaseline[i], op.top, DELTA);
+                assertTrue(op.left >= g.left[i]);
+                assertTrue(op.left <= g.textCenterX[i]);
+            }
+        }
+    }
+
+    @Test
+    public void cursor_followsTyping() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(4);
+        assertCursorAt(editText, 0);
+
+        editText.commitSymbol('1');
+        editText.commitSymbol('2');
+        assertCursorAt(editText, 2);
+
+        editText.deleteSymbols(1);
+        assertCursorAt(editText, 1);
+    }
+
+    @Test
+    public void cursor_hiddenWhenFilledAndShownOnLastWhenSelected() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(4);
+        for(int i = 0; i < 4; i++) {
+            editText.commitSymbol('1');
+        }
+        assertCursorAt(editText, -1);
+
+        editText.drawCursorAtTheEnd();
+        assertCursorAt(editText, 3);
+        editText.clearCursorAtTheEnd();
+
+        //activation of filled cells selects the last symbol, all symbols stay drawn
+        editText.setActivated(true);
+        assertEquals(CellInputStateMachine.State.SELECTED, editText.input.state());
+        assertCursorAt(editText, 3);
+        assertEquals(4, draw(editText).ops(RecordingCanvas.Type.TEXT).size());
+
+        //deleting removes the selected symbol and selects the previous one
+        editText.deleteSymbols(1);
+        assertCursorAt(editText, 2);
+        assertEquals(3, draw(editText).ops(RecordingCanvas.Type.TEXT).size());
+    }
+
+    @Test
+    public void drawing_keepsStyleUnchanged() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(4);
+        CellStyle style = editText.renderer.style;
+        int measured = style.glyphAdvances.size();
+        float cursorTop = style.geometry.cursorTop;
+        //symbols which style doesn't measure are measured by view
+        editText.commitSymbol('1');
+        editText.commitSymbol('\u0436');
+        List<RecordingCanvas.Op> texts = draw(editText).ops(RecordingCanvas.Type.TEXT);
+        assertEquals(2, texts.size());
+        assertEquals("\u0436", texts.get(1).text);
+        assertEquals(measured, style.glyphAdvances.size());
+        assertEquals(cursorTop, style.geometry.cursorTop, 0.0f);
+        assertSame(style, editText.renderer.style);
+    }
+
+    @Test
+    public void pixelSnapping_drawsWholePixelsWithoutAntiAlias() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(6);
+        editText.setPixelSnapping(true);
+        editText.setOutlinesBatched(false);
+        assertFalse(editText.renderer.style.backgroundPaint.isAntiAlias());
+        assertFalse(editText.renderer.style.cursorPaint.isAntiAlias());
+        assertTrue(editText.renderer.style.textPaint.isAntiAlias());
+        for(RecordingCanvas.Op op : draw(editText).ops(RecordingCanvas.Type.RECT)) {
+            assertEquals(Math.round(op.left), op.left, 0.0f);
+            assertEquals(Math.round(op.top), op.top, 0.0f);
+            assertEquals(Math.round(op.right), op.right, 0.0f);
+            assertEquals(Math.round(op.bottom), op.bottom, 0.0f);
+        }
+    }
+
+    @Test
+    public void styleAttributes_appliedToPaintsAndCursor() throws Exception {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.cellsNumber, "4")
+                .addAttribute(R.attr.cellColor, "#ff0000")
+                .addAttribute(R.attr.cursorColor, "#00ff00")
+                .addAttribute(R.attr.cursorStyle, "underline")
+                .build();
+        LoginEditText editText = TestViews.layout(
+                new LoginEditText(RuntimeEnvironment.application, attrs), TestViews.WIDTH, TestViews.HEIGHT);
+        assertEquals(Color.RED, editText.renderer.style.backgroundPaint.getColor());
+        assertEquals(Color.GREEN, editText.renderer.style.cursorPaint.getColor());
+        assertEquals(Color.WHITE, editText.renderer.style.textPaint.getColor());
+
+        RecordingCanvas.Op cursor = draw(editText).ops(RecordingCanvas.Type.RECT).get(0);
+        assertEquals(cursor.bottom, cursor.top, 0.0f);
+    }
+
+    private static void assertCursorAt(LoginEditText editText, int cell) {
+        List<RecordingCanvas.Op> cursors = new java.util.ArrayList<>();
+        for(RecordingCanvas.Op op : draw(editText).ops(RecordingCanvas.Type.RECT)) {
+            if(op.paint == editText.renderer.style.cursorPaint) {
+                cursors.add(op);
+            }
+        }
+        if(cell < 0) {
+            assertTrue(cursors.isEmpty());
+            return;
+        }
+        assertEquals(1, cursors.size());
+        CellGeometry g = editText.renderer.style.geometry;
+        RecordingCanvas.Op cursor = cursors.get(0);
+        assertEquals(g.cursorLeft[cell], cursor.left, DELTA);
+        assertEquals(g.cursorRight[cell], cursor.right, DELTA);
+        assertEquals(g.cursorTop, cursor.top, DELTA);
+        assertEquals(g.cursorBottom, cursor.bottom, DELTA);
+    }
+
+    private static RecordingCanvas draw(LoginEditText editText) {
+        RecordingCanvas canvas = new RecordingCanvas();
+        editText.drawCells(canvas);
+        return canvas;
+    }
+}
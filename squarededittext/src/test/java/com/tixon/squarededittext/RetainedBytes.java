@@ -0,0 +1,145 @@
+package com.tixon.squarededittext;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates memory retained by an instance as the size of objects reachable from it which are
+ * not reachable from another instance of the same kind, so shared styles and configs are not
+ * counted. Object graph is walked by reflection, unlike used memory after GC the result
+ * doesn't depend on collector and is the same on every run.
+ * Sizes are estimated for 64-bit JVM with compressed references.
+ */
+class RetainedBytes {
+    private static final Map<Class<?>, List<Field>> fields = new HashMap<>();
+
+    private RetainedBytes() {
+    }
+
+    /**
+     * @param instance measured instance
+     * @param reference instance created the same way, whatever it reaches is shared
+     * @param boundaries objects which are shared by definition, e.g. context, they are not walked
+     * @return estimated bytes retained only by instance
+     */
+    static long of(Object instance, Object reference, Object... boundaries) {
+        Set<Object> stop = identitySet();
+        Collections.addAll(stop, boundaries);
+        stop.add(instance);
+        Set<Object> shared = reachable(reference, stop);
+        shared.addAll(stop);
+        shared.remove(instance);
+        long bytes = 0;
+        for(Object o : reachable(instance, shared)) {
+            bytes += shallowSize(o);
+        }
+        return bytes;
+    }
+
+    private static Set<Object> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    }
+
+    /**
+     * Walk references of fields and arrays, classes and threads are not walked
+     */
+    private static Set<Object> reachable(Object root, Set<Object> stop) {
+        Set<Object> seen = identitySet();
+        Deque<Object> queue = new ArrayDeque<>();
+        queue.add(root);
+        while(!queue.isEmpty()) {
+            Object o = queue.poll();
+            if(o instanceof Class || o instanceof Thread || stop.contains(o) || !seen.add(o)) {
+                continue;
+            }
+            Class<?> c = o.getClass();
+            if(c.isArray()) {
+                if(!c.getComponentType().isPrimitive()) {
+                    for(int i = 0, n = Array.getLength(o); i < n; i++) {
+                        add(queue, Array.get(o, i));
+                    }
+                }
+                continue;
+            }
+            for(Field field : fields(c)) {
+                if(!field.getType().isPrimitive()) {
+                    try {
+                        add(queue, field.get(o));
+                    } catch(IllegalAccessException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static void add(Deque<Object> queue, Object o) {
+        if(o != null) {
+            queue.add(o);
+        }
+    }
+
+    /**
+     * @return instance fields of class and its superclasses
+     */
+    private static List<Field> fields(Class<?> c) {
+        List<Field> result = fields.get(c);
+        if(result == null) {
+            result = new ArrayList<>();
+            for(Class<?> k = c; k != null; k = k.getSuperclass()) {
+                for(Field field : k.getDeclaredFields()) {
+                    if(!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        result.add(field);
+                    }
+                }
+            }
+            fields.put(c, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return header and fields or elements aligned to 8 bytes
+     */
+    private static long shallowSize(Object o) {
+        Class<?> c = o.getClass();
+        long size;
+        if(c.isArray()) {
+            size = 16 + (long) Array.getLength(o) * size(c.getComponentType());
+        } else {
+            size = 12;
+            for(Field field : fields(c)) {
+                size += size(field.getType());
+            }
+        }
+        return (size + 7) / 8 * 8;
+    }
+
+    private static int size(Class<?> type) {
+        if(type == long.class || type == double.class) {
+            return 8;
+        }
+        if(type == int.class || type == float.class) {
+            return 4;
+        }
+        if(type == short.class || type == char.class) {
+            return 2;
+        }
+        if(type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return 4;
+    }
+}
@@ -0,0 +1,77 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Rect;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class ScrollingTest {
+    private static final int CELLS = 64;
+    private static final int VISIBLE = 8;
+
+    private LoginEditText editText;
+
+    @Before
+    public void setUp() throws Exception {
+        editText = TestViews.loginEditText(CELLS);
+        editText.setVisibleCellsNumber(VISIBLE);
+    }
+
+    @Test
+    public void onlyVisibleCells_laidOut() throws Exception {
+        assertEquals(VISIBLE, editText.renderer.style.geometry.cellsNumber);
+        RecordingCanvas canvas = draw();
+        assertEquals(VISIBLE * CellGeometry.OUTLINE_FLOATS,
+                canvas.ops(RecordingCanvas.Type.LINES).get(0).count);
+    }
+
+    @Test
+    public void cursor_keptInView() throws Exception {
+        for(int i = 0; i < 20; i++) {
+            editText.commitSymbol((char) ('a' + i));
+        }
+        //cursor is in cell 20, which is the last visible one
+        assertEquals(13, editText.window.first());
+
+        RecordingCanvas canvas = draw();
+        List<RecordingCanvas.Op> texts = canvas.ops(RecordingCanvas.Type.TEXT);
+        assertEquals(VISIBLE - 1, texts.size());
+        assertEquals("n", texts.get(0).text);
+        RecordingCanvas.Op cursor = canvas.ops(RecordingCanvas.Type.RECT).get(0);
+        assertEquals(editText.renderer.style.geometry.cursorLeft[VISIBLE - 1], cursor.left, 0.001f);
+    }
+
+    @Test
+    public void frameCost_dependsOnVisibleCells() throws Exception {
+        for(int i = 0; i < CELLS; i++) {
+            editText.commitSymbol('1');
+            int ops = draw().ops.size();
+            assertTrue(ops + " ops", ops <= VISIBLE + DrawBudgetTest.FIXED_OPS_BUDGET);
+        }
+    }
+
+    @Test
+    public void scrolling_invalidatesAllVisibleCells() throws Exception {
+        for(int i = 0; i < VISIBLE; i++) {
+            editText.commitSymbol('1');
+        }
+        Rect expected = new Rect();
+        editText.getCellsRect(0, VISIBLE - 1, expected);
+        assertEquals(expected, editText.dirtyRect);
+    }
+
+    private RecordingCanvas draw() {
+        RecordingCanvas canvas = new RecordingCanvas();
+        editText.drawCells(canvas);
+        return canvas;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tixon.squarededittext;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.robolectric.Robolectric;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.util.ReflectionHelpers;
+
+/**
+ * Creates views laid out with exact size, as they are on screen, and attaches them to window
+ */
+class TestViews {
+    static final int WIDTH = 480;
+    static final int HEIGHT = 64;
+
+    private TestViews() {
+    }
+
+    static LoginEditText loginEditText(int cells) {
+        LoginEditText editText = new LoginEditText(RuntimeEnvironment.application);
+        editText.setCellsNumber(cells);
+        return layout(editText, WIDTH, HEIGHT);
+    }
+
+    static CodeInputView codeInputView(int cells) {
+        CodeInputView view = new CodeInputView(RuntimeEnvironment.application);
+        view.setCellsNumber(cells);
+        return layout(view, WIDTH, HEIGHT);
+    }
+
+    static <T extends View> T layout(T view, int width, int height) {
+        view.setLayoutParams(new ViewGroup.LayoutParams(width, height));
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+        return view;
+    }
+
+    /**
+     * Attach view to window of a visible activity. Robolectric doesn't run traversals,
+     * so the window would never report itself visible: visibility is dispatched here
+     * as the first traversal would do it
+     */
+    static <T extends View> T attach(T view) {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().start().resume().visible().get();
+        activity.setContentView(view);
+        Object attachInfo = ReflectionHelpers.getField(view, "mAttachInfo");
+        ReflectionHelpers.setField(attachInfo, "mWindowVisibility", View.VISIBLE);
+        view.dispatchWindowVisibilityChanged(View.VISIBLE);
+        return view;
+    }
+}
@@ -0,0 +1,102 @@
+package com.tixon.squarededittext;
+
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * With bypassed text layout TextView keeps Editable but doesn't lay out and draw it:
+ * no Layout is built by keystrokes and frames, and frames draw only cells
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class TextLayoutBypassTest {
+    private static final int CELLS = 8;
+
+    @Test
+    public void typing_keepsEditableWithoutLayout() throws Exception {
+        LoginEditText editText = bypassed();
+        for(int i = 0; i < CELLS; i++) {
+            editText.commitSymbol('7');
+            frame(editText, new Canvas());
+        }
+        assertEquals("77777777", editText.getText().toString());
+        assertNull(editText.getLayout());
+    }
+
+    @Test
+    public void enabledAfterLayout_dropsLayout() throws Exception {
+        LoginEditText editText = TestViews.loginEditText(CELLS);
+        assertNotNull(editText.getLayout());
+        editText.setTextLayoutBypassed(true);
+        frame(editText, new Canvas());
+        assertNull(editText.getLayout());
+    }
+
+    @Test
+    public void disabled_buildsLayoutOnPreDraw() throws Exception {
+        LoginEditText editText = bypassed();
+        editText.commitSymbol('7');
+        frame(editText, new Canvas());
+        editText.setTextLayoutBypassed(false);
+        editText.getViewTreeObserver().dispatchOnPreDraw();
+        assertNotNull(editText.getLayout());
+    }
+
+    @Test
+    public void wrapContent_fitsSquaresOfDesignWidth() throws Exception {
+        LoginEditText editText = new LoginEditText(RuntimeEnvironment.application);
+        editText.setCellsNumber(CELLS);
+        editText.setTextLayoutBypassed(true);
+        int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        editText.measure(unspecified, unspecified);
+        TestViews.layout(editText, editText.getMeasuredWidth(), editText.getMeasuredHeight());
+
+        CellGeometry g = editText.renderer.style.geometry;
+        float square = Utils.dpToPx(LoginEditText.SQUARE_WIDTH_DP, RuntimeEnvironment.application);
+        assertEquals(square, g.squareWidth, 0.5f);
+        assertTrue(g.right[CELLS - 1] <= editText.getMeasuredWidth());
+        assertTrue(g.bottom[0] <= editText.getMeasuredHeight());
+        assertNull(editText.getLayout());
+    }
+
+    @Test
+    public void frame_drawsOnlyCells() throws Exception {
+        LoginEditText editText = bypassed();
+        RecordingCanvas canvas = new RecordingCanvas();
+        for(int length = 0; length <= CELLS; length++) {
+            canvas.reset();
+            editText.onDraw(canvas);
+            int budget = DrawBudgetTest.FIXED_OPS_BUDGET + length;
+            assertTrue("symbols = " + length + ": " + canvas.ops.size() + " ops, budget is "
+                    + budget + "\n" + canvas.ops, canvas.ops.size() <= budget);
+            editText.commitSymbol('7');
+        }
+    }
+
+    private static LoginEditText bypassed() {
+        LoginEditText editText = new LoginEditText(RuntimeEnvironment.application);
+        editText.setCellsNumber(CELLS);
+        editText.setTextLayoutBypassed(true);
+        return TestViews.layout(editText, TestViews.WIDTH, TestViews.HEIGHT);
+    }
+
+    /**
+     * Pre-draw, layout if requested and draw, as a frame does. View.draw of Robolectric
+     * draws only background, so onDraw is called
+     */
+    private static void frame(LoginEditText editText, Canvas canvas) {
+        editText.getViewTreeObserver().dispatchOnPreDraw();
+        if(editText.isLayoutRequested()) {
+            TestViews.layout(editText, TestViews.WIDTH, TestViews.HEIGHT);
+        }
+        editText.onDraw(canvas);
+    }
+}